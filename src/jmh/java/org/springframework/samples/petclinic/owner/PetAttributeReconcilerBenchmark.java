@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Works out the attribute changes of an edited pet, as the pet update form does: of the
+ * stored attributes, one is changed, one removed and the others submitted unchanged, and
+ * one new attribute is added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PetAttributeReconcilerBenchmark {
+
+	@Param({ "5", "50", "500" })
+	private int attributes;
+
+	private final PetAttributeReconciler reconciler = new PetAttributeReconciler();
+
+	private List<PetAttribute> stored;
+
+	private List<PetAttribute> submitted;
+
+	@Setup
+	public void setup() {
+		this.stored = new ArrayList<>();
+		this.submitted = new ArrayList<>();
+		for (int i = 1; i <= this.attributes; i++) {
+			this.stored.add(attribute(i, "name" + i, "value" + i));
+			if (i == 1) {
+				this.submitted.add(attribute(i, "name" + i, "changed"));
+			}
+			else if (i != 2) {
+				this.submitted.add(attribute(i, "name" + i, "value" + i));
+			}
+		}
+		this.submitted.add(attribute(null, "added", "value"));
+	}
+
+	private static PetAttribute attribute(Integer id, String name, String value) {
+		PetAttribute attribute = new PetAttribute();
+		attribute.setId(id);
+		attribute.setName(name);
+		attribute.setValue(value);
+		return attribute;
+	}
+
+	@Benchmark
+	public PetAttributeChanges reconcile() {
+		return this.reconciler.reconcile(1, this.stored, this.submitted);
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+/**
+ * Binds and validates a submitted pet form: parses the pet type, as the form binding does,
+ * and validates a complete and an empty pet, with the binding result each request gets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PetFormBenchmark {
+
+	private static final String[] TYPE_NAMES = { "bird", "cat", "dog", "hamster", "lizard", "snake" };
+
+	private PetTypeFormatter formatter;
+
+	private final PetValidator validator = new PetValidator();
+
+	private Pet valid;
+
+	private Pet empty;
+
+	@Setup
+	public void setup() {
+		List<PetType> types = new ArrayList<>();
+		for (int i = 0; i < TYPE_NAMES.length; i++) {
+			PetType type = new PetType();
+			type.setId(i + 1);
+			type.setName(TYPE_NAMES[i]);
+			types.add(type);
+		}
+		PetTypeRepository repository = mock(PetTypeRepository.class);
+		given(repository.findPetTypes()).willReturn(types);
+		PetTypeRegistry registry = new PetTypeRegistry(repository);
+		registry.refresh();
+		this.formatter = new PetTypeFormatter(registry);
+
+		this.valid = new Pet();
+		this.valid.setName("Leo");
+		this.valid.setBirthDate(LocalDate.of(2010, 9, 7));
+		this.valid.setType(types.get(1));
+		this.empty = new Pet();
+	}
+
+	@Benchmark
+	public PetType parseType() throws ParseException {
+		return this.formatter.parse("snake", Locale.ENGLISH);
+	}
+
+	@Benchmark
+	public Errors validateValidPet() {
+		Errors errors = new BeanPropertyBindingResult(this.valid, "pet");
+		this.validator.validate(this.valid, errors);
+		return errors;
+	}
+
+	@Benchmark
+	public Errors validateEmptyPet() {
+		Errors errors = new BeanPropertyBindingResult(this.empty, "pet");
+		this.validator.validate(this.empty, errors);
+		return errors;
+	}
+
+}
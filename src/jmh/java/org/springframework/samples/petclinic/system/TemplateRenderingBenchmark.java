@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.vet.Specialty;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+/**
+ * Renders the owner details and vet list pages with the template engine set up as the
+ * application sets it up, from the data the controllers put in the model.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplateRenderingBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Engine {
+
+		private SpringTemplateEngine engine;
+
+		private JakartaServletWebApplication application;
+
+		@Setup
+		public void setup() {
+			SpringResourceTemplateResolver resolver = new SpringResourceTemplateResolver();
+			resolver.setApplicationContext(new GenericApplicationContext());
+			resolver.setPrefix("classpath:/templates/");
+			resolver.setSuffix(".html");
+			resolver.setTemplateMode(TemplateMode.HTML);
+			resolver.setCharacterEncoding("UTF-8");
+			resolver.setCacheable(true);
+			ResourceBundleMessageSource messages = new ResourceBundleMessageSource();
+			messages.setBasename("messages/messages");
+			this.engine = new SpringTemplateEngine();
+			this.engine.setTemplateResolver(resolver);
+			this.engine.setTemplateEngineMessageSource(messages);
+			this.engine.setEnableSpringELCompiler(true);
+			this.application = JakartaServletWebApplication.buildApplication(new MockServletContext());
+		}
+
+		String render(String template, Map<String, Object> model) {
+			MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+			IWebExchange exchange = this.application.buildExchange(request, new MockHttpServletResponse());
+			WebContext context = new WebContext(exchange, Locale.ENGLISH, model);
+			return this.engine.process(template, context);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class OwnerPage {
+
+		@Param({ "1", "10" })
+		private int pets;
+
+		private final Map<String, Object> model = new HashMap<>();
+
+		@Setup
+		public void setup() {
+			PetType dog = new PetType();
+			dog.setName("dog");
+			Owner owner = new Owner();
+			owner.setId(1);
+			owner.setFirstName("George");
+			owner.setLastName("Franklin");
+			owner.setAddress("110 W. Liberty St.");
+			owner.setCity("Madison");
+			owner.setTelephone("6085551023");
+			for (int i = 1; i <= this.pets; i++) {
+				Pet pet = new Pet();
+				pet.setName("Pet " + i);
+				pet.setBirthDate(LocalDate.of(2010, 9, 7));
+				pet.setType(dog);
+				owner.addPet(pet);
+				pet.setId(i);
+				for (int j = 1; j <= 3; j++) {
+					Visit visit = new Visit();
+					visit.setDate(LocalDate.of(2013, 1, j));
+					visit.setDescription("visit " + j);
+					pet.addVisit(visit);
+				}
+			}
+			this.model.put("owner", owner);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class VetPage {
+
+		private final Map<String, Object> model = new HashMap<>();
+
+		@Setup
+		public void setup() {
+			List<Vet> vets = new ArrayList<>();
+			for (int i = 1; i <= 5; i++) {
+				Vet vet = new Vet();
+				vet.setId(i);
+				vet.setFirstName("James");
+				vet.setLastName("Carter " + i);
+				for (int j = 0; j < i % 3; j++) {
+					Specialty specialty = new Specialty();
+					specialty.setName("specialty " + j);
+					vet.addSpecialty(specialty);
+				}
+				vets.add(vet);
+			}
+			this.model.put("listVets", vets);
+			this.model.put("currentPage", 2);
+			this.model.put("totalPages", 20);
+			this.model.put("totalItems", 100L);
+			this.model.put("selectedSpecialty", null);
+		}
+
+	}
+
+	@Benchmark
+	public String ownerDetails(Engine engine, OwnerPage page) {
+		return engine.render("owners/ownerDetails", page.model);
+	}
+
+	@Benchmark
+	public String vetList(Engine engine, VetPage page) {
+		return engine.render("vets/vetList", page.model);
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Ids for rows written with plain SQL.
+ * <p>
+ * Ids are taken from the generator Hibernate uses for the entity, so rows inserted with
+ * JDBC and rows persisted through JPA never get the same id, and JDBC inserts can be
+ * batched without reading generated keys back.
+ * </p>
+ */
+@Component
+public class EntityIds {
+
+	private final EntityManager entityManager;
+
+	public EntityIds(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Return the next id for the given entity. Must be called within a transaction.
+	 */
+	public int next(Class<?> entityType) {
+		SharedSessionContractImplementor session = this.entityManager.unwrap(SharedSessionContractImplementor.class);
+		BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+			.getMappingMetamodel()
+			.getEntityDescriptor(entityType)
+			.getGenerator();
+		return ((Number) generator.generate(session, null, null, EventType.INSERT)).intValue();
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Map;
+
+/**
+ * One line of a bulk import.
+ *
+ * @param line the line number in the input, starting at 1
+ * @param fields the non-empty fields of the line by name
+ * @param error why the line could not be parsed, or {@code null} if it was parsed
+ */
+public record ImportRecord(long line, Map<String, String> fields, String error) {
+
+	public static ImportRecord malformed(long line, String error) {
+		return new ImportRecord(line, Map.of(), error);
+	}
+
+	public String get(String name) {
+		return this.fields.get(name);
+	}
+
+}
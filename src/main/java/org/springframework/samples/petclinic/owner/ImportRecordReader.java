@@ -0,0 +1,191 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the records of a bulk import one at a time, so the input is never held in memory
+ * as a whole.
+ * <p>
+ * Every record names its kind in a {@code record} field ({@code owner}, {@code pet},
+ * {@code visit} or {@code attribute}). CSV input starts with a header line naming the
+ * fields of each column; NDJSON input has one JSON object per line. A line that cannot be
+ * parsed is returned as a {@link ImportRecord#malformed malformed} record, so reading can
+ * carry on with the next one.
+ * </p>
+ */
+@FunctionalInterface
+public interface ImportRecordReader {
+
+	/**
+	 * Read the next record.
+	 * @return the next record, or {@code null} at the end of the input
+	 */
+	ImportRecord read() throws IOException;
+
+	/**
+	 * Return a reader for comma separated values with a header line, as described by RFC
+	 * 4180. Values may be quoted with double quotes, and quoted values may span lines.
+	 */
+	static ImportRecordReader csv(BufferedReader input) throws IOException {
+		long[] line = { 0 };
+		List<String> names = readCsvRecord(input, line);
+		if (names == null) {
+			return () -> null;
+		}
+		return () -> {
+			List<String> values;
+			long start;
+			do {
+				start = line[0] + 1;
+				try {
+					values = readCsvRecord(input, line);
+				}
+				catch (IllegalArgumentException ex) {
+					return ImportRecord.malformed(start, ex.getMessage());
+				}
+			}
+			while (values != null && values.size() == 1 && values.get(0).isEmpty());
+			if (values == null) {
+				return null;
+			}
+			if (values.size() != names.size()) {
+				return ImportRecord.malformed(start, "expected " + names.size() + " values but found " + values.size());
+			}
+			Map<String, String> fields = new HashMap<>();
+			for (int i = 0; i < values.size(); i++) {
+				if (!values.get(i).isEmpty()) {
+					fields.put(names.get(i), values.get(i));
+				}
+			}
+			return new ImportRecord(start, fields, null);
+		};
+	}
+
+	/**
+	 * Return a reader for newline delimited JSON objects.
+	 */
+	static ImportRecordReader ndjson(BufferedReader input, ObjectMapper mapper) {
+		long[] line = { 0 };
+		return () -> {
+			String text;
+			do {
+				text = input.readLine();
+				line[0]++;
+			}
+			while (text != null && text.isBlank());
+			if (text == null) {
+				return null;
+			}
+			JsonNode node;
+			try {
+				node = mapper.readTree(text);
+			}
+			catch (JsonProcessingException ex) {
+				return ImportRecord.malformed(line[0], "invalid JSON: " + ex.getOriginalMessage());
+			}
+			if (!node.isObject()) {
+				return ImportRecord.malformed(line[0], "expected a JSON object");
+			}
+			Map<String, String> fields = new HashMap<>();
+			node.properties().forEach(field -> {
+				if (!field.getValue().isNull() && !field.getValue().asText().isEmpty()) {
+					fields.put(field.getKey(), field.getValue().asText());
+				}
+			});
+			return new ImportRecord(line[0], fields, null);
+		};
+	}
+
+	/**
+	 * Read the values of the next CSV record, counting the lines it takes up. Unquoted
+	 * values are trimmed, while quoted values are kept exactly as written, line breaks
+	 * included; an unterminated quoted value therefore runs to the end of the input.
+	 * @return the values, a single empty one for a blank line, or {@code null} at the end
+	 * of the input
+	 */
+	private static List<String> readCsvRecord(BufferedReader input, long[] line) throws IOException {
+		int c = input.read();
+		if (c < 0) {
+			return null;
+		}
+		line[0]++;
+		List<String> values = new ArrayList<>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		boolean wasQuoted = false;
+		for (; c >= 0; c = input.read()) {
+			if (quoted) {
+				if (c != '"') {
+					if (c == '\n') {
+						line[0]++;
+					}
+					value.append((char) c);
+					continue;
+				}
+				input.mark(1);
+				if (input.read() == '"') {
+					value.append('"');
+				}
+				else {
+					input.reset();
+					quoted = false;
+				}
+			}
+			else if (c == '"') {
+				if (!wasQuoted && value.toString().isBlank()) {
+					value.setLength(0);
+				}
+				quoted = true;
+				wasQuoted = true;
+			}
+			else if (c == ',') {
+				values.add(wasQuoted ? value.toString() : value.toString().trim());
+				value.setLength(0);
+				wasQuoted = false;
+			}
+			else if (c == '\n') {
+				break;
+			}
+			else if (c == '\r') {
+				input.mark(1);
+				if (input.read() != '\n') {
+					input.reset();
+				}
+				break;
+			}
+			else if (!wasQuoted || !Character.isWhitespace(c)) {
+				value.append((char) c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("unterminated quoted value");
+		}
+		values.add(wasQuoted ? value.toString() : value.toString().trim());
+		return values;
+	}
+
+}
@@ -16,20 +16,24 @@
 package org.springframework.samples.petclinic.owner;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.core.style.ToStringCreator;
+import org.springframework.data.domain.AfterDomainEventPublication;
+import org.springframework.data.domain.DomainEvents;
 import org.springframework.samples.petclinic.model.Person;
 import org.springframework.util.Assert;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotBlank;
 
@@ -60,11 +64,16 @@ public class Owner extends Person {
 	@Pattern(regexp = "\\d{10}", message = "{telephone.invalid}")
 	private String telephone;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@OneToMany(cascade = CascadeType.ALL)
 	@JoinColumn(name = "owner_id")
 	@OrderBy("name")
 	private final List<Pet> pets = new ArrayList<>();
 
+	@Version
+	private Integer version;
+
+	private transient String loadedLastName;
+
 	public String getAddress() {
 		return this.address;
 	}
@@ -89,6 +98,14 @@ public class Owner extends Person {
 		this.telephone = telephone;
 	}
 
+	public Integer getVersion() {
+		return this.version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	public List<Pet> getPets() {
 		return this.pets;
 	}
@@ -155,6 +172,29 @@ public class Owner extends Person {
 			.toString();
 	}
 
+	@PostLoad
+	void rememberLastName() {
+		this.loadedLastName = getLastName();
+	}
+
+	/**
+	 * Announces that this owner has been saved, and renamed if its last name differs from
+	 * the one it was loaded with, published by {@link OwnerRepository}.
+	 */
+	@DomainEvents
+	Collection<Object> domainEvents() {
+		OwnerSavedEvent saved = new OwnerSavedEvent(getId(), getFirstName(), getLastName(), this.telephone);
+		if (this.loadedLastName != null && !this.loadedLastName.equals(getLastName())) {
+			return List.of(saved, new OwnerRenamedEvent(getId(), this.loadedLastName, getLastName()));
+		}
+		return List.of(saved);
+	}
+
+	@AfterDomainEventPublication
+	void domainEventsPublished() {
+		this.loadedLastName = getLastName();
+	}
+
 	/**
 	 * Adds the given {@link Visit} to the {@link Pet} with the given identifier.
 	 * @param petId the identifier of the {@link Pet}, must not be {@literal null}.
@@ -15,12 +15,21 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -48,15 +57,30 @@ class OwnerController {
 
 	private static final String VIEWS_OWNER_CREATE_OR_UPDATE_FORM = "owners/createOrUpdateOwnerForm";
 
+	private static final int PAGE_SIZE = 5;
+
+	private static final Sort KEYSET_SORT = Sort.by("lastName", "id");
+
 	private final OwnerRepository owners;
 
-	public OwnerController(OwnerRepository owners) {
+	private final boolean keysetPagination;
+
+	private final OwnerLastNameIndex lastNameIndex;
+
+	private final OwnerSearchCache searchCache;
+
+	public OwnerController(OwnerRepository owners,
+			@Value("${petclinic.owners.keyset-pagination:false}") boolean keysetPagination,
+			ObjectProvider<OwnerLastNameIndex> lastNameIndex, ObjectProvider<OwnerSearchCache> searchCache) {
 		this.owners = owners;
+		this.keysetPagination = keysetPagination;
+		this.lastNameIndex = lastNameIndex.getIfAvailable();
+		this.searchCache = searchCache.getIfAvailable();
 	}
 
 	@InitBinder
 	public void setAllowedFields(WebDataBinder dataBinder) {
-		dataBinder.setDisallowedFields("id");
+		dataBinder.setDisallowedFields("id", "version");
 	}
 
 	@ModelAttribute("owner")
@@ -90,44 +114,129 @@ class OwnerController {
 	}
 
 	@GetMapping("/owners")
-	public String processFindForm(@RequestParam(defaultValue = "1") int page, Owner owner, BindingResult result,
-			Model model) {
+	public String processFindForm(@RequestParam(defaultValue = "1") int page,
+			@RequestParam(required = false) String afterLastName, @RequestParam(required = false) Integer afterId,
+			Owner owner, BindingResult result, Model model) {
 		// allow parameterless GET request for /owners to return all records
 		if (owner.getLastName() == null) {
 			owner.setLastName(""); // empty string signifies broadest possible search
 		}
 
+		if (this.lastNameIndex != null) {
+			return processIndexedFindForm(page, owner, result, model);
+		}
+
+		if (this.keysetPagination) {
+			return processKeysetFindForm(afterLastName, afterId, owner, result, model);
+		}
+
 		// find owners by last name
-		Page<Owner> ownersResults = findPaginatedForOwnersLastName(page, owner.getLastName());
-		if (ownersResults.isEmpty()) {
+		Page<Integer> ownerIds = findPaginatedForOwnersLastName(page, owner.getLastName());
+		if (ownerIds.isEmpty()) {
 			// no owners found
 			result.rejectValue("lastName", "notFound", "not found");
 			return "owners/findOwners";
 		}
 
-		if (ownersResults.getTotalElements() == 1) {
+		if (ownerIds.getTotalElements() == 1) {
 			// 1 owner found
-			owner = ownersResults.iterator().next();
-			return "redirect:/owners/" + owner.getId();
+			return "redirect:/owners/" + ownerIds.getContent().get(0);
 		}
 
 		// multiple owners found
-		return addPaginationModel(page, model, ownersResults);
+		return addIdPaginationModel(page, model, ownerIds);
 	}
 
-	private String addPaginationModel(int page, Model model, Page<Owner> paginated) {
-		List<Owner> listOwners = paginated.getContent();
+	private String addIdPaginationModel(int page, Model model, Page<Integer> paginatedIds) {
+		List<Owner> listOwners = findOwnersWithPets(paginatedIds.getContent());
 		model.addAttribute("currentPage", page);
-		model.addAttribute("totalPages", paginated.getTotalPages());
-		model.addAttribute("totalItems", paginated.getTotalElements());
+		model.addAttribute("totalPages", paginatedIds.getTotalPages());
+		model.addAttribute("totalItems", paginatedIds.getTotalElements());
 		model.addAttribute("listOwners", listOwners);
 		return "owners/ownersList";
 	}
 
-	private Page<Owner> findPaginatedForOwnersLastName(int page, String lastname) {
-		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return owners.findByLastNameStartingWith(lastname, pageable);
+	/**
+	 * Search variant that resolves the matching ids and their total from the in-memory
+	 * {@link OwnerLastNameIndex}, so the database is only asked for the owners shown.
+	 */
+	private String processIndexedFindForm(int page, Owner owner, BindingResult result, Model model) {
+		Page<Integer> ownerIds = this.lastNameIndex.findIds(owner.getLastName(), PageRequest.of(page - 1, PAGE_SIZE));
+		if (ownerIds.getTotalElements() == 0) {
+			// no owners found
+			result.rejectValue("lastName", "notFound", "not found");
+			return "owners/findOwners";
+		}
+
+		if (ownerIds.getTotalElements() == 1 && ownerIds.hasContent()) {
+			// 1 owner found
+			return "redirect:/owners/" + ownerIds.getContent().get(0);
+		}
+
+		// multiple owners found
+		return addIdPaginationModel(page, model, ownerIds);
+	}
+
+	private Page<Integer> findPaginatedForOwnersLastName(int page, String lastname) {
+		Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE);
+		if (this.searchCache != null) {
+			return this.searchCache.findIds(lastname, pageable, p -> owners.findIdsByLastNameStartingWith(lastname, p));
+		}
+		return owners.findIdsByLastNameStartingWith(lastname, pageable);
+	}
+
+	/**
+	 * Search variant that seeks past the last owner shown, ordered by last name and id,
+	 * instead of skipping an offset. No total count is computed, so the list only offers
+	 * navigation to the first and the next page.
+	 */
+	private String processKeysetFindForm(String afterLastName, Integer afterId, Owner owner, BindingResult result,
+			Model model) {
+		ScrollPosition position = (afterLastName == null || afterId == null) ? ScrollPosition.keyset()
+				: ScrollPosition.forward(Map.of("lastName", afterLastName, "id", afterId));
+		Window<OwnerLastName> ownersResults = this.owners.findLastNamesByLastNameStartingWith(owner.getLastName(),
+				position, Limit.of(PAGE_SIZE), KEYSET_SORT);
+		if (ownersResults.isEmpty()) {
+			// no owners found
+			result.rejectValue("lastName", "notFound", "not found");
+			return "owners/findOwners";
+		}
+
+		if (position.isInitial() && ownersResults.size() == 1 && !ownersResults.hasNext()) {
+			// 1 owner found
+			return "redirect:/owners/" + ownersResults.getContent().get(0).id();
+		}
+
+		// multiple owners found
+		List<Owner> listOwners = findOwnersWithPets(ownersResults.map(OwnerLastName::id).getContent());
+		model.addAttribute("keyset", true);
+		model.addAttribute("lastName", owner.getLastName());
+		if (ownersResults.hasNext()) {
+			OwnerLastName last = ownersResults.getContent().get(ownersResults.size() - 1);
+			model.addAttribute("nextLastName", last.lastName());
+			model.addAttribute("nextId", last.id());
+		}
+		model.addAttribute("listOwners", listOwners);
+		return "owners/ownersList";
+	}
+
+	/**
+	 * Load the given owners together with their pets in a single query, keeping the order
+	 * of the page, as the list view renders the pet names of each owner.
+	 */
+	private List<Owner> findOwnersWithPets(List<Integer> ids) {
+		Map<Integer, Owner> ownersById = new HashMap<>();
+		for (Owner owner : this.owners.findWithPetsByIdIn(ids)) {
+			ownersById.put(owner.getId(), owner);
+		}
+		List<Owner> listOwners = new ArrayList<>(ids.size());
+		for (Integer id : ids) {
+			Owner owner = ownersById.get(id);
+			if (owner != null) {
+				listOwners.add(owner);
+			}
+		}
+		return listOwners;
 	}
 
 	@GetMapping("/owners/{ownerId}/edit")
@@ -163,7 +272,7 @@ class OwnerController {
 	@GetMapping("/owners/{ownerId}")
 	public ModelAndView showOwner(@PathVariable("ownerId") int ownerId) {
 		ModelAndView mav = new ModelAndView("owners/ownerDetails");
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.owners.findWithPetsAndVisitsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 		mav.addObject(owner);
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.samples.petclinic.owner.OwnerExportService.Format;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admin endpoint streaming an export of all owners, pets, visits and pet attributes
+ * straight into the response. Only available when {@code petclinic.export.enabled} is
+ * set.
+ */
+@Controller
+@ConditionalOnProperty(name = "petclinic.export.enabled", havingValue = "true")
+class OwnerExportController {
+
+	private final OwnerExportService exportService;
+
+	public OwnerExportController(OwnerExportService exportService) {
+		this.exportService = exportService;
+	}
+
+	@GetMapping("/owners/export")
+	public void export(@RequestParam(defaultValue = "ndjson") String format,
+			@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response) throws IOException {
+		Format exportFormat;
+		try {
+			exportFormat = Format.valueOf(format.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException ex) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown export format: " + format);
+			return;
+		}
+		String fileName = "petclinic." + format.toLowerCase(Locale.ROOT) + (gzip ? ".gz" : "");
+		String contentType = (exportFormat == Format.CSV) ? "text/csv" : "application/x-ndjson";
+		response.setContentType(gzip ? "application/gzip" : contentType + ";charset=UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+		this.exportService.export(exportFormat, gzip, response.getOutputStream());
+	}
+
+}
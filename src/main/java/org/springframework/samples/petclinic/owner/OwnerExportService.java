@@ -0,0 +1,285 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exports all owners with their pets, visits and pet attributes as a stream of records in
+ * the format read by {@link OwnerImportService}, so an export can be imported again.
+ * <p>
+ * Owners are read in id order, {@code petclinic.export.fetch-size} at a time, walking the
+ * primary key. The rows of each batch of owners, with their pets, visits and attributes,
+ * are then read by a single query over a forward-only cursor and written as soon as they
+ * are read. Rows are ordered by owner and pet, so the nesting of pets under owners and of
+ * visits and attributes under pets is given by the order of the records; only the rows of
+ * one batch are ever sorted, so neither the database nor the application holds more than
+ * one batch at a time whatever the size of the data.
+ * </p>
+ */
+@Service
+public class OwnerExportService {
+
+	/**
+	 * The fields of every record, in the order of the CSV columns.
+	 */
+	static final List<String> FIELDS = List.of("record", "firstName", "lastName", "address", "city", "telephone",
+			"name", "birthDate", "type", "date", "description", "value");
+
+	private static final int OWNER = 0;
+
+	private static final int PET = 1;
+
+	private static final int VISIT = 2;
+
+	private static final int ATTRIBUTE = 3;
+
+	private static final String SELECT_OWNER_IDS = "SELECT id FROM owners WHERE id > ? ORDER BY id LIMIT ?";
+
+	private static final String SELECT_OWNERS = """
+			SELECT o.id, 0, 0, o.id, o.first_name, o.last_name, o.address, o.city, o.telephone, CAST(NULL AS DATE)
+			FROM owners o WHERE o.id BETWEEN ? AND ?
+			UNION ALL
+			SELECT p.owner_id, p.id, 1, p.id, p.name, t.name, NULL, NULL, NULL, p.birth_date
+			FROM pets p JOIN types t ON t.id = p.type_id WHERE p.owner_id BETWEEN ? AND ?
+			UNION ALL
+			SELECT p.owner_id, p.id, 2, v.id, v.description, NULL, NULL, NULL, NULL, v.visit_date
+			FROM visits v JOIN pets p ON p.id = v.pet_id WHERE p.owner_id BETWEEN ? AND ?
+			UNION ALL
+			SELECT p.owner_id, p.id, 3, a.id, a.name, a.%1$svalue%1$s, NULL, NULL, NULL, NULL
+			FROM pet_attributes a JOIN pets p ON p.id = a.pet_id WHERE p.owner_id BETWEEN ? AND ?
+			ORDER BY 1, 2, 3, 4""";
+
+	/**
+	 * Supported export formats.
+	 */
+	public enum Format {
+
+		/**
+		 * Comma separated values with a header line.
+		 */
+		CSV,
+
+		/**
+		 * One JSON object per line.
+		 */
+		NDJSON
+
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectMapper objectMapper;
+
+	private final int fetchSize;
+
+	public OwnerExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper, @Value("${petclinic.export.fetch-size:1000}") int fetchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		// every batch is read from the same snapshot
+		this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		this.objectMapper = objectMapper;
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Write all owners to the given stream, which is left open.
+	 * @param format the format to write
+	 * @param gzip whether to compress the output while writing
+	 * @param out the stream to write to
+	 * @return the number of records written
+	 */
+	public long export(Format format, boolean gzip, OutputStream out) throws IOException {
+		GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+		Writer writer = new BufferedWriter(
+				new OutputStreamWriter(compressed != null ? compressed : out, StandardCharsets.UTF_8), 64 * 1024);
+		RecordWriter records = (format == Format.CSV) ? new CsvRecordWriter(writer)
+				: new NdjsonRecordWriter(this.objectMapper.getFactory().createGenerator(writer));
+		long count;
+		try {
+			count = this.transactionTemplate.execute(status -> query(records));
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		records.flush();
+		writer.flush();
+		if (compressed != null) {
+			compressed.finish();
+		}
+		return count;
+	}
+
+	private long query(RecordWriter records) {
+		// Postgres only streams with a fetch size inside a transaction, MySQL only with
+		// useCursorFetch enabled on the connection
+		JdbcTemplate cursor = new JdbcTemplate(this.jdbcTemplate.getDataSource());
+		cursor.setFetchSize(this.fetchSize);
+		String selectOwners = PetAttributeSql.forDatabase(cursor).format(SELECT_OWNERS);
+		long[] count = { 0 };
+		List<Integer> ids = this.jdbcTemplate.queryForList(SELECT_OWNER_IDS, Integer.class, 0, this.fetchSize);
+		while (!ids.isEmpty()) {
+			int first = ids.get(0);
+			int last = ids.get(ids.size() - 1);
+			cursor.query(selectOwners, rs -> {
+				try {
+					records.write(toRecord(rs));
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				count[0]++;
+			}, first, last, first, last, first, last, first, last);
+			ids = (ids.size() < this.fetchSize) ? List.of()
+					: this.jdbcTemplate.queryForList(SELECT_OWNER_IDS, Integer.class, last, this.fetchSize);
+		}
+		return count[0];
+	}
+
+	private static String[] toRecord(ResultSet rs) throws SQLException {
+		String[] values = new String[FIELDS.size()];
+		switch (rs.getInt(3)) {
+			case OWNER -> {
+				values[0] = "owner";
+				values[1] = rs.getString(5);
+				values[2] = rs.getString(6);
+				values[3] = rs.getString(7);
+				values[4] = rs.getString(8);
+				values[5] = rs.getString(9);
+			}
+			case PET -> {
+				values[0] = "pet";
+				values[6] = rs.getString(5);
+				values[7] = toString(rs.getDate(10));
+				values[8] = rs.getString(6);
+			}
+			case VISIT -> {
+				values[0] = "visit";
+				values[9] = toString(rs.getDate(10));
+				values[10] = rs.getString(5);
+			}
+			case ATTRIBUTE -> {
+				values[0] = "attribute";
+				values[6] = rs.getString(5);
+				values[11] = rs.getString(6);
+			}
+			default -> throw new IllegalStateException("Unexpected record kind " + rs.getInt(3));
+		}
+		return values;
+	}
+
+	private static String toString(Date date) {
+		return date == null ? null : date.toLocalDate().toString();
+	}
+
+	private interface RecordWriter {
+
+		void write(String[] values) throws IOException;
+
+		default void flush() throws IOException {
+		}
+
+	}
+
+	private static final class CsvRecordWriter implements RecordWriter {
+
+		private final Writer writer;
+
+		CsvRecordWriter(Writer writer) throws IOException {
+			this.writer = writer;
+			writer.write(String.join(",", FIELDS));
+			writer.write('\n');
+		}
+
+		@Override
+		public void write(String[] values) throws IOException {
+			for (int i = 0; i < values.length; i++) {
+				if (i > 0) {
+					this.writer.write(',');
+				}
+				if (values[i] != null) {
+					this.writer.write(quote(values[i]));
+				}
+			}
+			this.writer.write('\n');
+		}
+
+		private static String quote(String value) {
+			if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0
+					&& value.strip().equals(value)) {
+				return value;
+			}
+			// Line breaks are kept inside the quotes, which the import reads back as is
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+
+	}
+
+	private static final class NdjsonRecordWriter implements RecordWriter {
+
+		private final JsonGenerator generator;
+
+		NdjsonRecordWriter(JsonGenerator generator) {
+			this.generator = generator;
+			// Records are separated by line breaks rather than the default space
+			this.generator.setRootValueSeparator(null);
+		}
+
+		@Override
+		public void write(String[] values) throws IOException {
+			this.generator.writeStartObject();
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] != null) {
+					this.generator.writeStringField(FIELDS.get(i), values[i]);
+				}
+			}
+			this.generator.writeEndObject();
+			this.generator.writeRaw('\n');
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.generator.flush();
+		}
+
+	}
+
+}
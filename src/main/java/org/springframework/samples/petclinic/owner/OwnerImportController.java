@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Admin endpoint streaming a bulk import of owners, pets, visits and pet attributes from
+ * the request body into the {@link OwnerImportService}. Only available when
+ * {@code petclinic.import.enabled} is set.
+ */
+@Controller
+@ConditionalOnProperty(name = "petclinic.import.enabled", havingValue = "true")
+class OwnerImportController {
+
+	private final OwnerImportService importService;
+
+	private final ObjectMapper objectMapper;
+
+	public OwnerImportController(OwnerImportService importService, ObjectMapper objectMapper) {
+		this.importService = importService;
+		this.objectMapper = objectMapper;
+	}
+
+	@PostMapping(path = "/owners/import", consumes = "text/csv")
+	public @ResponseBody OwnerImportReport importCsv(InputStream body) throws IOException {
+		return this.importService.importRecords(ImportRecordReader.csv(reader(body)));
+	}
+
+	@PostMapping(path = "/owners/import", consumes = "application/x-ndjson")
+	public @ResponseBody OwnerImportReport importNdjson(InputStream body) throws IOException {
+		return this.importService.importRecords(ImportRecordReader.ndjson(reader(body), this.objectMapper));
+	}
+
+	private static BufferedReader reader(InputStream body) {
+		return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * @param owners the number of owners inserted
+ * @param pets the number of pets inserted
+ * @param visits the number of visits inserted
+ * @param attributes the number of pet attributes inserted
+ * @param rejected the number of records rejected
+ * @param elapsedMillis how long the import took
+ * @param rowsPerSecond the number of rows inserted per second
+ * @param rejections the first rejected records, with the reason they were rejected
+ */
+public record OwnerImportReport(long owners, long pets, long visits, long attributes, long rejected, long elapsedMillis,
+		double rowsPerSecond, List<Rejection> rejections) {
+
+	/**
+	 * A record that was not imported.
+	 *
+	 * @param line the line number of the record in the input
+	 * @param reason why the record was rejected
+	 */
+	public record Rejection(long line, String reason) {
+
+	}
+
+}
@@ -0,0 +1,465 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.owner.OwnerImportReport.Rejection;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports owners with their pets, visits and pet attributes from a stream of
+ * {@link ImportRecord records}, writing them with batched JDBC inserts.
+ * <p>
+ * Records are expected in tree order: each {@code pet} belongs to the {@code owner}
+ * before it, and each {@code visit} or {@code attribute} to the {@code pet} before it.
+ * Only the current owner and pet, the rows waiting for the next batch and the rows
+ * waiting for the next commit are held, so memory does not grow with the input.
+ * </p>
+ * <p>
+ * Records are validated with the same rules as the forms. Rejected records are counted
+ * and skipped together with the records that belong to them; everything else is committed
+ * every {@code petclinic.import.commit-size} rows, in JDBC batches of
+ * {@code petclinic.import.batch-size} rows. If the database fails, the rows of the
+ * current commit are rolled back and the exception is rethrown.
+ * </p>
+ */
+@Service
+public class OwnerImportService {
+
+	private static final Log logger = LogFactory.getLog(OwnerImportService.class);
+
+	private static final int MAX_REPORTED_REJECTIONS = 100;
+
+	private static final String INSERT_OWNER = "INSERT INTO owners (id, first_name, last_name, address, city, telephone) VALUES (?, ?, ?, ?, ?, ?)";
+
+	private static final String INSERT_PET = "INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (?, ?, ?, ?, ?)";
+
+	private static final String INSERT_VISIT = "INSERT INTO visits (id, pet_id, visit_date, description) VALUES (?, ?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final PlatformTransactionManager transactionManager;
+
+	private final PetTypeRepository types;
+
+	private final Validator validator;
+
+	private final ApplicationEventPublisher events;
+
+	private final EntityIds ids;
+
+	private final int batchSize;
+
+	private final int commitSize;
+
+	private volatile PetAttributeSql attributeSql;
+
+	public OwnerImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			PetTypeRepository types, Validator validator, ApplicationEventPublisher events, EntityIds ids,
+			@Value("${petclinic.import.batch-size:500}") int batchSize,
+			@Value("${petclinic.import.commit-size:5000}") int commitSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionManager = transactionManager;
+		this.types = types;
+		this.validator = validator;
+		this.events = events;
+		this.ids = ids;
+		this.batchSize = batchSize;
+		this.commitSize = Math.max(commitSize, batchSize);
+	}
+
+	/**
+	 * Import all records of the given reader.
+	 * @param reader the records to import
+	 * @return what was imported and rejected
+	 */
+	public OwnerImportReport importRecords(ImportRecordReader reader) throws IOException {
+		ImportRun run = new ImportRun();
+		try {
+			for (ImportRecord record = reader.read(); record != null; record = reader.read()) {
+				run.accept(record);
+			}
+			run.commit();
+		}
+		catch (RuntimeException | IOException | Error ex) {
+			run.rollback();
+			throw ex;
+		}
+		OwnerImportReport report = run.report();
+		logger.info("Imported " + report.owners() + " owners, " + report.pets() + " pets, " + report.visits()
+				+ " visits and " + report.attributes() + " attributes in " + report.elapsedMillis() + " ms ("
+				+ Math.round(report.rowsPerSecond()) + " rows/s), rejected " + report.rejected() + " records");
+		return report;
+	}
+
+	private PetAttributeSql attributeSql() {
+		PetAttributeSql sql = this.attributeSql;
+		if (sql == null) {
+			sql = PetAttributeSql.forDatabase(this.jdbcTemplate);
+			this.attributeSql = sql;
+		}
+		return sql;
+	}
+
+	/**
+	 * State of a single import.
+	 */
+	private final class ImportRun {
+
+		private final long start = System.nanoTime();
+
+		private final Map<String, PetType> petTypes = types.findPetTypes()
+			.stream()
+			.collect(Collectors.toMap(type -> type.getName().toLowerCase(Locale.ROOT), type -> type));
+
+		private final List<Owner> owners = new ArrayList<>();
+
+		private final List<PendingPet> pets = new ArrayList<>();
+
+		private final List<PendingChild<Visit>> visits = new ArrayList<>();
+
+		private final List<PendingChild<PetAttribute>> attributes = new ArrayList<>();
+
+		private final List<OwnerSummary> committedOwners = new ArrayList<>();
+
+		private final Set<Integer> committedPetIds = new LinkedHashSet<>();
+
+		private final List<Rejection> rejections = new ArrayList<>();
+
+		private TransactionStatus transaction;
+
+		private Owner currentOwner;
+
+		private Pet currentPet;
+
+		private long uncommittedRows;
+
+		private long ownerCount;
+
+		private long petCount;
+
+		private long visitCount;
+
+		private long attributeCount;
+
+		private long rejectedCount;
+
+		void accept(ImportRecord record) {
+			if (record.error() != null) {
+				reject(record, record.error());
+				return;
+			}
+			String kind = record.get("record");
+			if ("owner".equals(kind)) {
+				this.currentOwner = null;
+				this.currentPet = null;
+				acceptOwner(record);
+			}
+			else if ("pet".equals(kind)) {
+				this.currentPet = null;
+				acceptPet(record);
+			}
+			else if ("visit".equals(kind)) {
+				acceptVisit(record);
+			}
+			else if ("attribute".equals(kind)) {
+				acceptAttribute(record);
+			}
+			else {
+				reject(record, "unknown record: " + kind);
+			}
+			if (pendingRows() >= batchSize) {
+				insertPending();
+				if (this.uncommittedRows >= commitSize) {
+					commit();
+				}
+			}
+		}
+
+		private void acceptOwner(ImportRecord record) {
+			Owner owner = new Owner();
+			owner.setFirstName(record.get("firstName"));
+			owner.setLastName(record.get("lastName"));
+			owner.setAddress(record.get("address"));
+			owner.setCity(record.get("city"));
+			owner.setTelephone(record.get("telephone"));
+			if (violated(record, owner)) {
+				return;
+			}
+			this.owners.add(owner);
+			this.currentOwner = owner;
+		}
+
+		private void acceptPet(ImportRecord record) {
+			if (this.currentOwner == null) {
+				reject(record, "pet without a valid owner before it");
+				return;
+			}
+			Pet pet = new Pet();
+			pet.setName(record.get("name"));
+			String type = record.get("type");
+			if (type != null) {
+				pet.setType(this.petTypes.get(type.toLowerCase(Locale.ROOT)));
+				if (pet.getType() == null) {
+					reject(record, "type: unknown pet type " + type);
+					return;
+				}
+			}
+			try {
+				pet.setBirthDate(parseDate(record.get("birthDate")));
+			}
+			catch (DateTimeParseException ex) {
+				reject(record, "birthDate: invalid date " + record.get("birthDate"));
+				return;
+			}
+			Errors errors = new BeanPropertyBindingResult(pet, "pet");
+			new PetValidator().validate(pet, errors);
+			if (pet.getBirthDate() != null && pet.getBirthDate().isAfter(LocalDate.now())) {
+				errors.rejectValue("birthDate", "typeMismatch.birthDate", "must not be in the future");
+			}
+			if (errors.hasErrors()) {
+				reject(record,
+						errors.getFieldErrors()
+							.stream()
+							.map(error -> error.getField() + ": " + error.getDefaultMessage())
+							.collect(Collectors.joining(", ")));
+				return;
+			}
+			this.pets.add(new PendingPet(this.currentOwner, pet));
+			this.currentPet = pet;
+		}
+
+		private void acceptVisit(ImportRecord record) {
+			if (this.currentPet == null) {
+				reject(record, "visit without a valid pet before it");
+				return;
+			}
+			Visit visit = new Visit();
+			visit.setDescription(record.get("description"));
+			try {
+				if (record.get("date") != null) {
+					visit.setDate(parseDate(record.get("date")));
+				}
+			}
+			catch (DateTimeParseException ex) {
+				reject(record, "date: invalid date " + record.get("date"));
+				return;
+			}
+			if (violated(record, visit)) {
+				return;
+			}
+			this.visits.add(new PendingChild<>(this.currentPet, visit));
+		}
+
+		private void acceptAttribute(ImportRecord record) {
+			if (this.currentPet == null) {
+				reject(record, "attribute without a valid pet before it");
+				return;
+			}
+			PetAttribute attribute = new PetAttribute();
+			attribute.setName(record.get("name"));
+			attribute.setValue(record.get("value"));
+			if (attribute.getName() == null) {
+				reject(record, "name: required");
+				return;
+			}
+			this.attributes.add(new PendingChild<>(this.currentPet, attribute));
+		}
+
+		private boolean violated(ImportRecord record, Object entity) {
+			List<String> violations = new ArrayList<>();
+			for (ConstraintViolation<Object> violation : validator.validate(entity)) {
+				violations.add(violation.getPropertyPath() + ": " + violation.getMessage());
+			}
+			if (violations.isEmpty()) {
+				return false;
+			}
+			violations.sort(null);
+			reject(record, String.join(", ", violations));
+			return true;
+		}
+
+		private void reject(ImportRecord record, String reason) {
+			this.rejectedCount++;
+			if (this.rejections.size() < MAX_REPORTED_REJECTIONS) {
+				this.rejections.add(new Rejection(record.line(), reason));
+			}
+		}
+
+		private int pendingRows() {
+			return this.owners.size() + this.pets.size() + this.visits.size() + this.attributes.size();
+		}
+
+		/**
+		 * Insert the pending rows, parents first so that the rows that refer to them
+		 * satisfy their foreign keys. Ids are assigned up front, so no generated keys
+		 * need to be read back.
+		 */
+		private void insertPending() {
+			int rows = pendingRows();
+			if (rows == 0) {
+				return;
+			}
+			if (this.transaction == null) {
+				this.transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+			}
+			this.owners.forEach(owner -> owner.setId(ids.next(Owner.class)));
+			this.pets.forEach(pending -> pending.pet().setId(ids.next(Pet.class)));
+			this.visits.forEach(pending -> pending.child().setId(ids.next(Visit.class)));
+			this.attributes.forEach(pending -> pending.child().setId(ids.next(PetAttribute.class)));
+			insert(INSERT_OWNER, this.owners, (ps, owner) -> {
+				ps.setInt(1, owner.getId());
+				ps.setString(2, owner.getFirstName());
+				ps.setString(3, owner.getLastName());
+				ps.setString(4, owner.getAddress());
+				ps.setString(5, owner.getCity());
+				ps.setString(6, owner.getTelephone());
+			});
+			insert(INSERT_PET, this.pets, (ps, pending) -> {
+				ps.setInt(1, pending.pet().getId());
+				ps.setString(2, pending.pet().getName());
+				ps.setDate(3, Date.valueOf(pending.pet().getBirthDate()));
+				ps.setInt(4, pending.pet().getType().getId());
+				ps.setInt(5, pending.owner().getId());
+			});
+			insert(INSERT_VISIT, this.visits, (ps, pending) -> {
+				ps.setInt(1, pending.child().getId());
+				ps.setInt(2, pending.pet().getId());
+				ps.setDate(3, Date.valueOf(pending.child().getDate()));
+				ps.setString(4, pending.child().getDescription());
+			});
+			insert(attributeSql().insert(), this.attributes, (ps, pending) -> {
+				ps.setInt(1, pending.child().getId());
+				ps.setInt(2, pending.pet().getId());
+				ps.setString(3, pending.child().getName());
+				ps.setString(4, pending.child().getValue());
+			});
+			for (Owner owner : this.owners) {
+				this.committedOwners.add(new OwnerSummary(owner.getId(), owner.getFirstName(), owner.getLastName(),
+						owner.getTelephone()));
+			}
+			this.attributes.forEach(pending -> this.committedPetIds.add(pending.pet().getId()));
+			this.ownerCount += this.owners.size();
+			this.petCount += this.pets.size();
+			this.visitCount += this.visits.size();
+			this.attributeCount += this.attributes.size();
+			this.owners.clear();
+			this.pets.clear();
+			this.visits.clear();
+			this.attributes.clear();
+			this.uncommittedRows += rows;
+		}
+
+		void commit() {
+			insertPending();
+			if (this.transaction != null) {
+				transactionManager.commit(this.transaction);
+				this.transaction = null;
+			}
+			this.uncommittedRows = 0;
+			// Let the owner search indexes pick up the new owners, all at once
+			if (!this.committedOwners.isEmpty()) {
+				events.publishEvent(
+						new OwnersImportedEvent(List.copyOf(this.committedOwners), List.copyOf(this.committedPetIds)));
+			}
+			this.committedOwners.clear();
+			this.committedPetIds.clear();
+		}
+
+		void rollback() {
+			if (this.transaction != null) {
+				transactionManager.rollback(this.transaction);
+				this.transaction = null;
+			}
+		}
+
+		OwnerImportReport report() {
+			long elapsedNanos = Math.max(System.nanoTime() - this.start, 1);
+			long rows = this.ownerCount + this.petCount + this.visitCount + this.attributeCount;
+			return new OwnerImportReport(this.ownerCount, this.petCount, this.visitCount, this.attributeCount,
+					this.rejectedCount, elapsedNanos / 1_000_000, rows * 1_000_000_000.0 / elapsedNanos,
+					List.copyOf(this.rejections));
+		}
+
+		private <T> void insert(String sql, List<T> rows, StatementSetter<T> setter) {
+			if (!rows.isEmpty()) {
+				jdbcTemplate.batchUpdate(sql, batchSetter(rows, setter));
+			}
+		}
+
+		private <T> BatchPreparedStatementSetter batchSetter(List<T> rows, StatementSetter<T> setter) {
+			return new BatchPreparedStatementSetter() {
+
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					setter.setValues(ps, rows.get(i));
+				}
+
+				@Override
+				public int getBatchSize() {
+					return rows.size();
+				}
+
+			};
+		}
+
+	}
+
+	private static LocalDate parseDate(String value) {
+		return value == null ? null : LocalDate.parse(value);
+	}
+
+	private record PendingPet(Owner owner, Pet pet) {
+	}
+
+	private record PendingChild<T>(Pet pet, T child) {
+	}
+
+	@FunctionalInterface
+	private interface StatementSetter<T> {
+
+		void setValues(PreparedStatement ps, T row) throws SQLException;
+
+	}
+
+}
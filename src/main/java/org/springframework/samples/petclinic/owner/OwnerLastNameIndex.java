@@ -0,0 +1,357 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory index of owner last names, used to resolve last name prefix searches to owner
+ * ids and totals without querying the database.
+ * <p>
+ * Last names are normalized to lower case and kept, with the owner ids, in a balanced
+ * search tree ordered by name and id in which each node knows the size of its subtree.
+ * The owners matching a prefix form a contiguous range whose bounds, size and entries are
+ * found in logarithmic time, and saving an owner updates the tree in logarithmic time
+ * too. Updates copy the path to the changed nodes rather than modifying them, so searches
+ * read an immutable snapshot without locking. The index is built when the application
+ * starts and updated whenever owners are saved or imported.
+ * </p>
+ * <p>
+ * The number of entries and an estimate of the retained heap are exported as the
+ * {@code petclinic.owners.index.entries} and {@code petclinic.owners.index.memory}
+ * metrics.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.owners.last-name-index.enabled", havingValue = "true")
+public class OwnerLastNameIndex implements SmartInitializingSingleton, MeterBinder {
+
+	private final OwnerRepository owners;
+
+	private volatile Node root;
+
+	// Only touched while holding the lock
+	private Map<Integer, String> namesById = new HashMap<>();
+
+	// kept up to date by rebuild and update, so that scraping the gauge costs nothing
+	private volatile long entryBytes;
+
+	// serializes updates, held while querying
+	private final ReentrantLock lock = new ReentrantLock();
+
+	public OwnerLastNameIndex(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		rebuild();
+	}
+
+	/**
+	 * Reload the whole index from the database.
+	 */
+	public void rebuild() {
+		this.lock.lock();
+		try {
+			List<OwnerLastName> lastNames = new ArrayList<>(this.owners.findAllLastNames());
+			lastNames.replaceAll(owner -> new OwnerLastName(owner.id(), normalize(owner.lastName())));
+			lastNames.sort(Comparator.comparing(OwnerLastName::lastName).thenComparing(OwnerLastName::id));
+			Map<Integer, String> namesById = new HashMap<>();
+			long entryBytes = 0;
+			for (OwnerLastName owner : lastNames) {
+				namesById.put(owner.id(), owner.lastName());
+				entryBytes += entryBytes(owner.lastName());
+			}
+			this.namesById = namesById;
+			this.root = Node.build(lastNames, 0, lastNames.size(), 0);
+			this.entryBytes = entryBytes;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnerSaved(OwnerSavedEvent event) {
+		update(event.ownerId(), event.lastName());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnersImported(OwnersImportedEvent event) {
+		update(event.owners().stream().map(owner -> new OwnerLastName(owner.id(), owner.lastName())).toList());
+	}
+
+	/**
+	 * Add the given owner to the index, or move it if its last name has changed.
+	 * @param ownerId the id of the owner
+	 * @param lastName the current last name of the owner
+	 */
+	public void update(int ownerId, String lastName) {
+		update(List.of(new OwnerLastName(ownerId, lastName)));
+	}
+
+	/**
+	 * Add the given owners to the index, or move those whose last name has changed.
+	 * @param lastNames the ids and current last names of the owners
+	 */
+	public void update(Collection<OwnerLastName> lastNames) {
+		this.lock.lock();
+		try {
+			Node root = this.root;
+			long entryBytes = this.entryBytes;
+			for (OwnerLastName owner : lastNames) {
+				String name = normalize(owner.lastName());
+				String previous = this.namesById.put(owner.id(), name);
+				if (previous != null) {
+					root = Node.remove(root, previous, owner.id());
+					entryBytes -= entryBytes(previous);
+				}
+				root = Node.insert(root, name, owner.id());
+				entryBytes += entryBytes(name);
+			}
+			this.root = root;
+			this.entryBytes = entryBytes;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return one page of the ids of the owners whose last name starts with the given
+	 * prefix, ignoring case, ordered by last name and id.
+	 * @param lastName the last name prefix to search for
+	 * @param pageable the page to return
+	 * @return the matching owner ids, with the total number of matches
+	 */
+	public Page<Integer> findIds(String lastName, Pageable pageable) {
+		Node current = this.root;
+		String prefix = normalize(lastName);
+		int from = Node.lowerBound(current, prefix);
+		int to = Node.lowerBound(current, prefix + Character.MAX_VALUE);
+		int start = (int) Math.min(from + pageable.getOffset(), to);
+		int end = Math.min(start + pageable.getPageSize(), to);
+		List<Integer> ids = new ArrayList<>(end - start);
+		for (int i = start; i < end; i++) {
+			ids.add(Node.idAt(current, i));
+		}
+		return new PageImpl<>(ids, pageable, to - from);
+	}
+
+	/**
+	 * Return the number of owners in the index.
+	 */
+	public int size() {
+		return Node.size(this.root);
+	}
+
+	/**
+	 * Return an estimate of the heap retained by the index, in bytes, assuming compressed
+	 * object pointers and compact strings. Names are counted once per entry, although the
+	 * tree and the map of names by id share them.
+	 */
+	public long estimatedMemoryBytes() {
+		return 64 + this.entryBytes;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("petclinic.owners.index.entries", this, OwnerLastNameIndex::size)
+			.description("Number of owners in the last name index")
+			.register(registry);
+		Gauge.builder("petclinic.owners.index.memory", this, OwnerLastNameIndex::estimatedMemoryBytes)
+			.description("Estimated heap retained by the last name index")
+			.baseUnit("bytes")
+			.register(registry);
+	}
+
+	private static long entryBytes(String name) {
+		// tree node, map entry with its boxed id and table slot, and the name itself
+		return 32 + 32 + 16 + 8 + 24 + 16 + name.length();
+	}
+
+	private static String normalize(String lastName) {
+		return lastName == null ? "" : lastName.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Immutable node of a treap: a binary search tree ordered by normalized last name and
+	 * id, and a heap ordered by a random priority, which keeps it balanced in
+	 * expectation. Changes return a new root sharing all nodes off the changed path.
+	 */
+	private static final class Node {
+
+		// above the random priorities of inserted nodes, decreasing with depth
+		private static final int BUILT_PRIORITY = Integer.MAX_VALUE;
+
+		private static final int MAX_INSERTED_PRIORITY = Integer.MAX_VALUE - 64;
+
+		final String name;
+
+		final int id;
+
+		final int priority;
+
+		final Node left;
+
+		final Node right;
+
+		final int size;
+
+		Node(String name, int id, int priority, Node left, Node right) {
+			this.name = name;
+			this.id = id;
+			this.priority = priority;
+			this.left = left;
+			this.right = right;
+			this.size = 1 + size(left) + size(right);
+		}
+
+		Node with(Node left, Node right) {
+			return new Node(this.name, this.id, this.priority, left, right);
+		}
+
+		static int size(Node node) {
+			return (node != null) ? node.size : 0;
+		}
+
+		/**
+		 * Build a perfectly balanced tree from the given sorted entries.
+		 */
+		static Node build(List<OwnerLastName> sorted, int from, int to, int depth) {
+			if (from >= to) {
+				return null;
+			}
+			int mid = (from + to) >>> 1;
+			OwnerLastName owner = sorted.get(mid);
+			return new Node(owner.lastName(), owner.id(), BUILT_PRIORITY - depth, build(sorted, from, mid, depth + 1),
+					build(sorted, mid + 1, to, depth + 1));
+		}
+
+		static Node insert(Node root, String name, int id) {
+			Node[] parts = split(root, name, id);
+			int priority = ThreadLocalRandom.current().nextInt(MAX_INSERTED_PRIORITY);
+			return merge(merge(parts[0], new Node(name, id, priority, null, null)), parts[1]);
+		}
+
+		static Node remove(Node root, String name, int id) {
+			Node[] parts = split(root, name, id);
+			Node first = parts[1];
+			while (first != null && first.left != null) {
+				first = first.left;
+			}
+			if (first == null || first.id != id || !first.name.equals(name)) {
+				return root;
+			}
+			return merge(parts[0], removeFirst(parts[1]));
+		}
+
+		/**
+		 * Split the given tree into the entries before the given one and the others.
+		 */
+		private static Node[] split(Node node, String name, int id) {
+			if (node == null) {
+				return new Node[2];
+			}
+			int comparison = node.name.compareTo(name);
+			if (comparison < 0 || (comparison == 0 && node.id < id)) {
+				Node[] parts = split(node.right, name, id);
+				return new Node[] { node.with(node.left, parts[0]), parts[1] };
+			}
+			Node[] parts = split(node.left, name, id);
+			return new Node[] { parts[0], node.with(parts[1], node.right) };
+		}
+
+		/**
+		 * Join two trees, all entries of the first one being before those of the second.
+		 */
+		private static Node merge(Node first, Node second) {
+			if (first == null) {
+				return second;
+			}
+			if (second == null) {
+				return first;
+			}
+			if (first.priority > second.priority) {
+				return first.with(first.left, merge(first.right, second));
+			}
+			return second.with(merge(first, second.left), second.right);
+		}
+
+		private static Node removeFirst(Node node) {
+			return (node.left == null) ? node.right : node.with(removeFirst(node.left), node.right);
+		}
+
+		/**
+		 * Return the number of entries whose name is less than the given one.
+		 */
+		static int lowerBound(Node node, String name) {
+			int position = 0;
+			while (node != null) {
+				if (node.name.compareTo(name) < 0) {
+					position += size(node.left) + 1;
+					node = node.right;
+				}
+				else {
+					node = node.left;
+				}
+			}
+			return position;
+		}
+
+		/**
+		 * Return the id of the entry at the given position.
+		 */
+		static int idAt(Node node, int position) {
+			while (true) {
+				int leftSize = size(node.left);
+				if (position < leftSize) {
+					node = node.left;
+				}
+				else if (position == leftSize) {
+					return node.id;
+				}
+				else {
+					position -= leftSize + 1;
+					node = node.right;
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Loads an {@link Owner} aggregate at most once per web request.
+ * <p>
+ * Controllers often resolve the same owner from several {@code @ModelAttribute} methods
+ * (e.g. the owner and one of its pets). Going through this loader lets them share the
+ * instance loaded first instead of each querying the repository again.
+ * </p>
+ */
+@Component
+@RequestScope
+public class OwnerLoader {
+
+	private final OwnerRepository owners;
+
+	private final Map<Key, Owner> loaded = new HashMap<>();
+
+	public OwnerLoader(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	/**
+	 * Load the owner with its pets and their types.
+	 */
+	public Owner withPets(int ownerId) {
+		return load(ownerId, Graph.PETS, this.owners::findWithPetsById);
+	}
+
+	/**
+	 * Load the owner with its pets, their types and attributes.
+	 */
+	public Owner withPetsAndAttributes(int ownerId) {
+		return load(ownerId, Graph.PETS_AND_ATTRIBUTES, this.owners::findWithPetsAndAttributesById);
+	}
+
+	/**
+	 * Load the owner with its pets, their types and visits.
+	 */
+	public Owner withPetsAndVisits(int ownerId) {
+		return load(ownerId, Graph.PETS_AND_VISITS, this.owners::findWithPetsAndVisitsById);
+	}
+
+	private Owner load(int ownerId, Graph graph, Function<Integer, Optional<Owner>> finder) {
+		return this.loaded.computeIfAbsent(new Key(ownerId, graph),
+				key -> finder.apply(ownerId)
+					.orElseThrow(() -> new IllegalArgumentException(
+							"Owner not found with id: " + ownerId + ". Please ensure the ID is correct ")));
+	}
+
+	private enum Graph {
+
+		PETS, PETS_AND_ATTRIBUTES, PETS_AND_VISITS
+
+	}
+
+	private record Key(int ownerId, Graph graph) {
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.samples.petclinic.system.ReadApi;
+import org.springframework.samples.petclinic.system.ReadApiDatabase;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only JSON API for owners, their pets and the visits of their pets:
+ * <ul>
+ * <li>{@code GET /api/owners?lastName=} streams the owners whose last name starts with
+ * the given text, ordered by last name</li>
+ * <li>{@code GET /api/owners/{ownerId}} returns an owner with its pets and their
+ * visits</li>
+ * <li>{@code GET /api/owners/{ownerId}/pets} streams the pets of an owner with their
+ * visits</li>
+ * <li>{@code GET /api/owners/{ownerId}/pets/{petId}/visits} streams the visits of a
+ * pet</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.read-api.enabled", havingValue = "true")
+class OwnerReadApi implements ReadApi {
+
+	private static final String SELECT_OWNERS = """
+			SELECT id, first_name, last_name, telephone FROM owners
+			WHERE last_name LIKE :lastName ESCAPE '!'
+			ORDER BY last_name, id""";
+
+	private static final String SELECT_OWNER = """
+			SELECT id, first_name, last_name, address, city, telephone FROM owners
+			WHERE id = :ownerId""";
+
+	private static final String SELECT_PETS = """
+			SELECT p.id, p.name, p.birth_date, t.name AS type, v.id AS visit_id, v.visit_date, v.description
+			FROM pets p JOIN types t ON t.id = p.type_id LEFT JOIN visits v ON v.pet_id = p.id
+			WHERE p.owner_id = :ownerId
+			ORDER BY p.name, p.id, v.visit_date, v.id""";
+
+	private static final String SELECT_VISITS = """
+			SELECT v.id, v.visit_date, v.description
+			FROM visits v JOIN pets p ON p.id = v.pet_id
+			WHERE v.pet_id = :petId AND p.owner_id = :ownerId
+			ORDER BY v.visit_date, v.id""";
+
+	private final DatabaseClient db;
+
+	OwnerReadApi(ReadApiDatabase database) {
+		this.db = database.client();
+	}
+
+	@Override
+	public RouterFunction<ServerResponse> routes() {
+		return RouterFunctions.route()
+			.GET("/api/owners", this::owners)
+			.GET("/api/owners/{ownerId:\\d+}", this::owner)
+			.GET("/api/owners/{ownerId:\\d+}/pets", this::pets)
+			.GET("/api/owners/{ownerId:\\d+}/pets/{petId:\\d+}/visits", this::visits)
+			.build();
+	}
+
+	private Mono<ServerResponse> owners(ServerRequest request) {
+		String lastName = request.queryParam("lastName").orElse("");
+		Flux<OwnerSummary> owners = this.db.sql(SELECT_OWNERS)
+			.bind("lastName", escapeLike(lastName) + "%")
+			.map(row -> new OwnerSummary(row.get("id", Integer.class), row.get("first_name", String.class),
+					row.get("last_name", String.class), row.get("telephone", String.class)))
+			.all();
+		return ServerResponse.ok().contentType(ReadApi.collectionType(request)).body(owners, OwnerSummary.class);
+	}
+
+	private Mono<ServerResponse> owner(ServerRequest request) {
+		int ownerId = Integer.parseInt(request.pathVariable("ownerId"));
+		return this.db.sql(SELECT_OWNER)
+			.bind("ownerId", ownerId)
+			.map(row -> new OwnerDetails(row.get("id", Integer.class), row.get("first_name", String.class),
+					row.get("last_name", String.class), row.get("address", String.class), row.get("city", String.class),
+					row.get("telephone", String.class), List.of()))
+			.one()
+			// one query after the other, so a request never holds two connections
+			.flatMap(owner -> findPets(ownerId).collectList().map(owner::withPets))
+			.flatMap(owner -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(owner))
+			.switchIfEmpty(ServerResponse.notFound().build());
+	}
+
+	private Mono<ServerResponse> pets(ServerRequest request) {
+		Flux<PetDetails> pets = findPets(Integer.parseInt(request.pathVariable("ownerId")));
+		return ServerResponse.ok().contentType(ReadApi.collectionType(request)).body(pets, PetDetails.class);
+	}
+
+	private Mono<ServerResponse> visits(ServerRequest request) {
+		Flux<VisitDetails> visits = this.db.sql(SELECT_VISITS)
+			.bind("ownerId", Integer.parseInt(request.pathVariable("ownerId")))
+			.bind("petId", Integer.parseInt(request.pathVariable("petId")))
+			.map(row -> new VisitDetails(row.get("id", Integer.class), row.get("visit_date", LocalDate.class),
+					row.get("description", String.class)))
+			.all();
+		return ServerResponse.ok().contentType(ReadApi.collectionType(request)).body(visits, VisitDetails.class);
+	}
+
+	/**
+	 * Stream the pets of an owner, each with its visits. The rows of a pet are joined
+	 * with those of its visits and grouped again as they arrive, so pets are emitted one
+	 * by one rather than once all have been read.
+	 */
+	private Flux<PetDetails> findPets(int ownerId) {
+		return this.db.sql(SELECT_PETS).bind("ownerId", ownerId).map(row -> {
+			Integer visitId = row.get("visit_id", Integer.class);
+			VisitDetails visit = (visitId != null) ? new VisitDetails(visitId, row.get("visit_date", LocalDate.class),
+					row.get("description", String.class)) : null;
+			return new PetRow(new PetDetails(row.get("id", Integer.class), row.get("name", String.class),
+					row.get("birth_date", LocalDate.class), row.get("type", String.class), List.of()), visit);
+		})
+			.all()
+			.bufferUntilChanged(row -> row.pet().id())
+			.map(rows -> rows.get(0)
+				.pet()
+				.withVisits(rows.stream().map(PetRow::visit).filter(Objects::nonNull).toList()));
+	}
+
+	private static String escapeLike(String text) {
+		return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
+	/**
+	 * An owner with its pets.
+	 */
+	public record OwnerDetails(Integer id, String firstName, String lastName, String address, String city,
+			String telephone, List<PetDetails> pets) {
+
+		OwnerDetails withPets(List<PetDetails> pets) {
+			return new OwnerDetails(this.id, this.firstName, this.lastName, this.address, this.city, this.telephone,
+					pets);
+		}
+
+	}
+
+	/**
+	 * A pet with its visits, oldest first.
+	 */
+	public record PetDetails(Integer id, String name, LocalDate birthDate, String type, List<VisitDetails> visits) {
+
+		PetDetails withVisits(List<VisitDetails> visits) {
+			return new PetDetails(this.id, this.name, this.birthDate, this.type, visits);
+		}
+
+	}
+
+	/**
+	 * A visit of a pet.
+	 */
+	public record VisitDetails(Integer id, LocalDate date, String description) {
+	}
+
+	private record PetRow(PetDetails pet, VisitDetails visit) {
+	}
+
+}
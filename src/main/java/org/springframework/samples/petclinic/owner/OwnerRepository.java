@@ -15,14 +15,22 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import jakarta.annotation.Nonnull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository class for <code>Owner</code> domain objects. All method names are compliant
@@ -47,6 +55,75 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 */
 	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
 
+	/**
+	 * Retrieve the ids of the {@link Owner}s whose last name <i>starts</i> with the given
+	 * name, without loading the owners themselves.
+	 * @param lastName Value to search for
+	 * @param pageable the page to return
+	 * @return the ids of the matching owners, with the total number of matches
+	 */
+	@Query("SELECT owner.id FROM Owner owner WHERE owner.lastName LIKE :#{escape(#lastName)}% ESCAPE :#{escapeCharacter()}")
+	Page<Integer> findIdsByLastNameStartingWith(String lastName, Pageable pageable);
+
+	/**
+	 * Retrieve a window of the ids and last names of the {@link Owner}s whose last name
+	 * <i>starts</i> with the given name, seeking from the given position rather than
+	 * skipping an offset, and without counting all matches or loading the owners
+	 * themselves.
+	 * @param lastName Value to search for
+	 * @param position the keyset position to continue after
+	 * @param limit the maximum number of owners to return
+	 * @param sort the order to scroll in, ending with a unique property
+	 * @return a {@link Window} of the ids and last names of matching owners
+	 */
+	Window<OwnerLastName> findLastNamesByLastNameStartingWith(String lastName, ScrollPosition position, Limit limit,
+			Sort sort);
+
+	/**
+	 * Retrieve the id and last name of every {@link Owner}, without loading the entities.
+	 * @return the last names of all owners
+	 */
+	@Query("SELECT new org.springframework.samples.petclinic.owner.OwnerLastName(owner.id, owner.lastName) FROM Owner owner")
+	List<OwnerLastName> findAllLastNames();
+
+	/**
+	 * Retrieve the id, names and telephone number of {@link Owner}s, without loading the
+	 * entities.
+	 * @param pageable the owners to return
+	 * @return a summary of the requested owners
+	 */
+	@Query("SELECT new org.springframework.samples.petclinic.owner.OwnerSummary(owner.id, owner.firstName, owner.lastName, owner.telephone) FROM Owner owner")
+	List<OwnerSummary> findSummaries(Pageable pageable);
+
+	/**
+	 * Retrieve the version of an {@link Owner} without loading it. The version is
+	 * incremented on every change to the owner, its pets, their visits or attributes.
+	 * @param id the id of the owner
+	 * @return an {@link Optional} containing the version if the owner exists
+	 */
+	@Query("SELECT owner.version FROM Owner owner WHERE owner.id = :id")
+	Optional<Integer> findVersionById(@Param("id") Integer id);
+
+	/**
+	 * Increment the version of an {@link Owner} whose pets or visits were changed without
+	 * the owner entity being written.
+	 * @param id the id of the owner
+	 * @return the number of owners updated
+	 */
+	@Modifying
+	@Query("UPDATE Owner owner SET owner.version = owner.version + 1 WHERE owner.id = :id")
+	int incrementVersion(@Param("id") Integer id);
+
+	/**
+	 * Increment the version of the {@link Owner}s of the given pets.
+	 * @param petIds the ids of the pets that were changed
+	 * @return the number of owners updated
+	 */
+	@Modifying
+	@Query(value = "UPDATE owners SET version = version + 1 WHERE id IN (SELECT owner_id FROM pets WHERE id IN (:petIds))",
+			nativeQuery = true)
+	int incrementVersionOfPetOwners(@Param("petIds") Collection<Integer> petIds);
+
 	/**
 	 * Retrieve an {@link Owner} from the data store by id.
 	 * <p>
@@ -62,4 +139,39 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 */
 	Optional<Owner> findById(@Nonnull Integer id);
 
+	/**
+	 * Retrieve the {@link Owner}s with the given ids together with their pets, as
+	 * rendered by the owners list.
+	 * @param ids the ids to search for
+	 * @return the matching {@link Owner}s with their pets initialized
+	 */
+	@EntityGraph(attributePaths = { "pets", "pets.type" })
+	List<Owner> findWithPetsByIdIn(Collection<Integer> ids);
+
+	/**
+	 * Retrieve an {@link Owner} together with its pets, as needed by the new pet form.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 */
+	@EntityGraph(attributePaths = { "pets", "pets.type" })
+	Optional<Owner> findWithPetsById(Integer id);
+
+	/**
+	 * Retrieve an {@link Owner} together with its pets and their visits, as rendered by
+	 * the owner details page and the visit form.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 */
+	@EntityGraph(attributePaths = { "pets", "pets.type", "pets.visits" })
+	Optional<Owner> findWithPetsAndVisitsById(Integer id);
+
+	/**
+	 * Retrieve an {@link Owner} together with its pets and their attributes, as needed by
+	 * the pet edit form.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found
+	 */
+	@EntityGraph(attributePaths = { "pets", "pets.type", "pets.attributes" })
+	Optional<Owner> findWithPetsAndAttributesById(Integer id);
+
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.samples.petclinic.system.CacheInvalidation;
+
+/**
+ * Published by {@link OwnerRepository#save} whenever an {@link Owner} has been inserted
+ * or updated.
+ *
+ * @param ownerId the id of the saved owner
+ * @param firstName the first name of the owner as saved
+ * @param lastName the last name of the owner as saved
+ * @param telephone the telephone number of the owner as saved
+ */
+public record OwnerSavedEvent(Integer ownerId, String firstName, String lastName,
+		String telephone) implements CacheInvalidation {
+
+}
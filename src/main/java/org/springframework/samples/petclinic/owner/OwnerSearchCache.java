@@ -0,0 +1,158 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caches the results of owner searches by last name prefix, holding only the owner ids of
+ * each page and the total number of matches.
+ * <p>
+ * Results are keyed by the prefix as entered, as databases differ in whether they compare
+ * last names ignoring case. A saved owner drops the results of every prefix its last name
+ * starts with, ignoring case, and a renamed owner also those matching its previous last
+ * name; saves that cannot change which owners match any other prefix leave them alone. A
+ * search that overlaps with an invalidation is not cached.
+ * </p>
+ * <p>
+ * At most {@code petclinic.owners.search-cache.max-entries} pages are held. Hits, misses
+ * and evictions are exported as the {@code cache.*} metrics of the {@code ownerSearches}
+ * cache.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.owners.search-cache.enabled", havingValue = "true")
+public class OwnerSearchCache implements MeterBinder {
+
+	private final Cache<Key, Result> results;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	public OwnerSearchCache(@Value("${petclinic.owners.search-cache.max-entries:10000}") long maxEntries) {
+		this.results = Caffeine.newBuilder().maximumSize(maxEntries).recordStats().build();
+	}
+
+	/**
+	 * Return one page of the ids of the owners whose last name starts with the given
+	 * prefix, running the given search only if the page is not cached.
+	 * @param lastName the last name prefix to search for
+	 * @param pageable the page to return
+	 * @param search the search to run on a miss
+	 * @return the matching owner ids, with the total number of matches
+	 */
+	public Page<Integer> findIds(String lastName, Pageable pageable, Function<Pageable, Page<Integer>> search) {
+		Key key = new Key((lastName != null) ? lastName : "", pageable.getPageNumber(), pageable.getPageSize());
+		Result result = this.results.getIfPresent(key);
+		if (result == null) {
+			long generation = this.generation.get();
+			Page<Integer> ids = search.apply(pageable);
+			result = new Result(List.copyOf(ids.getContent()), ids.getTotalElements());
+			if (generation == this.generation.get()) {
+				this.results.put(key, result);
+				// an invalidation between the check and the put ran before there was a
+				// result to drop
+				if (generation != this.generation.get()) {
+					this.results.asMap().remove(key, result);
+				}
+			}
+		}
+		return new PageImpl<>(result.ids(), pageable, result.total());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnerSaved(OwnerSavedEvent event) {
+		invalidate(event.lastName());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnersImported(OwnersImportedEvent event) {
+		invalidate(event.owners().stream().map(OwnerSummary::lastName).toList());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnerRenamed(OwnerRenamedEvent event) {
+		invalidate(event.previousLastName());
+	}
+
+	/**
+	 * Drop the cached results of every prefix the given last name starts with.
+	 * @param lastName the last name of an inserted, updated or renamed owner
+	 */
+	public void invalidate(String lastName) {
+		invalidate(List.of(lastName));
+	}
+
+	/**
+	 * Drop the cached results of every prefix any of the given last names starts with,
+	 * going through the cached results once.
+	 * @param lastNames the last names of inserted, updated or renamed owners
+	 */
+	public void invalidate(Collection<String> lastNames) {
+		NavigableSet<String> names = new TreeSet<>();
+		lastNames.forEach(lastName -> names.add(normalize(lastName)));
+		this.generation.incrementAndGet();
+		this.results.asMap().keySet().removeIf(key -> {
+			// the names starting with the prefix sort right after it
+			String prefix = normalize(key.prefix());
+			String first = names.ceiling(prefix);
+			return first != null && first.startsWith(prefix);
+		});
+	}
+
+	/**
+	 * Return the number of cached pages.
+	 */
+	public long size() {
+		return this.results.estimatedSize();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, this.results, "ownerSearches");
+	}
+
+	private static String normalize(String lastName) {
+		return (lastName != null) ? lastName.toLowerCase(Locale.ROOT) : "";
+	}
+
+	private record Key(String prefix, int page, int size) {
+	}
+
+	private record Result(List<Integer> ids, long total) {
+	}
+
+}
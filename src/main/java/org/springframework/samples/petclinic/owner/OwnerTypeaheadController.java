@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Serves owner suggestions for the find owners form from the {@link OwnerTypeaheadIndex},
+ * without touching the database.
+ */
+@Controller
+class OwnerTypeaheadController {
+
+	private final OwnerTypeaheadIndex index;
+
+	public OwnerTypeaheadController(OwnerTypeaheadIndex index) {
+		this.index = index;
+	}
+
+	@GetMapping("/owners/typeahead")
+	public @ResponseBody List<OwnerSummary> typeahead(@RequestParam("q") String query,
+			@RequestParam(defaultValue = "10") int limit) {
+		return this.index.search(query, limit);
+	}
+
+}
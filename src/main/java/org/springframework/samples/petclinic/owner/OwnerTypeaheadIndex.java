@@ -0,0 +1,190 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded in-memory index answering owner search suggestions as the user types.
+ * <p>
+ * Each owner is keyed by its normalized last name, first name and telephone digits in
+ * sorted concurrent maps, so a prefix resolves to a range that is read without locking
+ * and left as soon as enough suggestions have been collected. Suggestions are ranked by
+ * last name matches first, then first name and telephone matches, each in alphabetical
+ * order.
+ * </p>
+ * <p>
+ * At most {@code petclinic.owners.typeahead.max-entries} owners are held, and at most
+ * {@code petclinic.owners.typeahead.max-results} suggestions are returned per query. The
+ * index starts with the most recent owners, and once full, each new owner replaces the
+ * one with the lowest id.
+ * </p>
+ */
+@Component
+public class OwnerTypeaheadIndex implements SmartInitializingSingleton {
+
+	private static final Log logger = LogFactory.getLog(OwnerTypeaheadIndex.class);
+
+	private final OwnerRepository owners;
+
+	private final int maxEntries;
+
+	private final int maxResults;
+
+	private final NavigableMap<Integer, OwnerSummary> ownersById = new ConcurrentSkipListMap<>();
+
+	// the size of ownersById, which a skip list only counts by going through it
+	private volatile int entries;
+
+	private boolean evicting;
+
+	private final NavigableMap<String, OwnerSummary> byLastName = new ConcurrentSkipListMap<>();
+
+	private final NavigableMap<String, OwnerSummary> byFirstName = new ConcurrentSkipListMap<>();
+
+	private final NavigableMap<String, OwnerSummary> byTelephone = new ConcurrentSkipListMap<>();
+
+	public OwnerTypeaheadIndex(OwnerRepository owners,
+			@Value("${petclinic.owners.typeahead.max-entries:100000}") int maxEntries,
+			@Value("${petclinic.owners.typeahead.max-results:10}") int maxResults) {
+		this.owners = owners;
+		this.maxEntries = maxEntries;
+		this.maxResults = maxResults;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (OwnerSummary owner : this.owners
+			.findSummaries(PageRequest.of(0, this.maxEntries, Sort.by(Direction.DESC, "id")))) {
+			put(owner);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnerSaved(OwnerSavedEvent event) {
+		put(new OwnerSummary(event.ownerId(), event.firstName(), event.lastName(), event.telephone()));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnersImported(OwnersImportedEvent event) {
+		event.owners().forEach(this::put);
+	}
+
+	/**
+	 * Add the given owner to the index, replacing any previous entry for the same id.
+	 * Once the index holds its maximum number of entries, a new owner replaces the owner
+	 * with the lowest id.
+	 * @param owner the owner to add
+	 */
+	public synchronized void put(OwnerSummary owner) {
+		OwnerSummary previous = this.ownersById.put(owner.id(), owner);
+		if (previous != null) {
+			removeKeys(previous);
+		}
+		else if (++this.entries > this.maxEntries) {
+			if (!this.evicting) {
+				logger.info("Owner typeahead index is full with " + this.maxEntries
+						+ " owners, replacing the oldest owners with new ones");
+				this.evicting = true;
+			}
+			this.entries--;
+			OwnerSummary oldest = this.ownersById.pollFirstEntry().getValue();
+			if (oldest == owner) {
+				// an owner older than all indexed ones, e.g. one evicted before
+				return;
+			}
+			removeKeys(oldest);
+		}
+		this.byLastName.put(key(normalize(owner.lastName()), owner.id()), owner);
+		this.byFirstName.put(key(normalize(owner.firstName()), owner.id()), owner);
+		this.byTelephone.put(key(digits(owner.telephone()), owner.id()), owner);
+	}
+
+	/**
+	 * Return the owners whose last name, first name or telephone number starts with the
+	 * given text, ignoring case.
+	 * @param query the text typed so far
+	 * @param limit the maximum number of suggestions wanted, capped by the configured
+	 * maximum
+	 * @return the best matching owners, best match first
+	 */
+	public List<OwnerSummary> search(String query, int limit) {
+		String name = normalize(query).trim();
+		int max = Math.min(limit, this.maxResults);
+		if (name.isEmpty() || max <= 0) {
+			return List.of();
+		}
+		Map<Integer, OwnerSummary> results = new LinkedHashMap<>();
+		collect(this.byLastName, name, results, max);
+		collect(this.byFirstName, name, results, max);
+		String telephone = digits(query);
+		if (!telephone.isEmpty()) {
+			collect(this.byTelephone, telephone, results, max);
+		}
+		return List.copyOf(results.values());
+	}
+
+	/**
+	 * Return the number of owners in the index.
+	 */
+	public int size() {
+		return this.entries;
+	}
+
+	private void removeKeys(OwnerSummary owner) {
+		this.byLastName.remove(key(normalize(owner.lastName()), owner.id()));
+		this.byFirstName.remove(key(normalize(owner.firstName()), owner.id()));
+		this.byTelephone.remove(key(digits(owner.telephone()), owner.id()));
+	}
+
+	private static void collect(NavigableMap<String, OwnerSummary> keys, String prefix,
+			Map<Integer, OwnerSummary> results, int max) {
+		for (OwnerSummary owner : keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+			if (results.size() >= max) {
+				return;
+			}
+			results.putIfAbsent(owner.id(), owner);
+		}
+	}
+
+	private static String key(String value, Integer id) {
+		return value + '\u0000' + id;
+	}
+
+	private static String normalize(String value) {
+		return value == null ? "" : value.toLowerCase(Locale.ROOT);
+	}
+
+	private static String digits(String value) {
+		return value == null ? "" : value.replaceAll("\\D", "");
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers conditional GET requests for owner pages from the owner's version.
+ * <p>
+ * The version of an {@link Owner} is incremented whenever the owner, its pets, their
+ * visits or attributes change, so together with the locale it identifies the rendered
+ * page. A matching {@code If-None-Match} is answered with 304 after looking up the
+ * version alone, before the controller loads the owner. Pages carrying a flash message
+ * are not cached, as the message is only meant to be shown once.
+ * </p>
+ */
+class OwnerVersionInterceptor implements HandlerInterceptor {
+
+	private final ObjectProvider<OwnerRepository> owners;
+
+	OwnerVersionInterceptor(ObjectProvider<OwnerRepository> owners) {
+		this.owners = owners;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Integer ownerId = ownerId(request);
+		if (ownerId == null || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+			return true;
+		}
+		Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request);
+		if (flash != null && !flash.isEmpty()) {
+			response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+			return true;
+		}
+		Optional<Integer> version = this.owners.getObject().findVersionById(ownerId);
+		if (version.isEmpty()) {
+			return true;
+		}
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		Locale locale = RequestContextUtils.getLocale(request);
+		String etag = "\"owner-" + ownerId + "-" + version.get() + "-" + locale.toLanguageTag() + "\"";
+		return !new ServletWebRequest(request, response).checkNotModified(etag);
+	}
+
+	private static Integer ownerId(HttpServletRequest request) {
+		@SuppressWarnings("unchecked")
+		Map<String, String> variables = (Map<String, String>) request
+			.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		String ownerId = (variables != null) ? variables.get("ownerId") : null;
+		if (ownerId == null) {
+			return null;
+		}
+		try {
+			return Integer.valueOf(ownerId);
+		}
+		catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+}
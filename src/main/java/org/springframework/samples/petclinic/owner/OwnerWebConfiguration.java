@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link OwnerVersionInterceptor} for the owner details page and the owner
+ * edit form. It runs after the locale change interceptor, as the locale is part of the
+ * ETag.
+ */
+@Configuration(proxyBeanMethods = false)
+class OwnerWebConfiguration implements WebMvcConfigurer {
+
+	private final ObjectProvider<OwnerRepository> owners;
+
+	OwnerWebConfiguration(ObjectProvider<OwnerRepository> owners) {
+		this.owners = owners;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new OwnerVersionInterceptor(this.owners))
+			.addPathPatterns("/owners/*", "/owners/*/edit")
+			.order(1);
+	}
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+import org.springframework.samples.petclinic.system.CacheInvalidation;
+
+/**
+ * Published by {@link OwnerImportService} once a batch of imported owners has been
+ * committed, in place of an {@link OwnerSavedEvent} per owner.
+ *
+ * @param owners the imported owners
+ * @param petIds the ids of the imported pets having attributes
+ */
+public record OwnersImportedEvent(List<OwnerSummary> owners, List<Integer> petIds) implements CacheInvalidation {
+
+}
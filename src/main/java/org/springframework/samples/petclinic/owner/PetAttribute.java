@@ -7,7 +7,7 @@ import jakarta.persistence.*;
 public class PetAttribute {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
 	private Integer id;
 
 	@ManyToOne(fetch = FetchType.LAZY)
@@ -17,7 +17,7 @@ public class PetAttribute {
 	@Column(name = "name", nullable = false, length = 50)
 	private String name;
 
-	@Column(name = "value", length = 255)
+	@Column(name = "`value`", length = 255)
 	private String value;
 
 	public Integer getId() {
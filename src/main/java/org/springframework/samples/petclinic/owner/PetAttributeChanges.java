@@ -0,0 +1,30 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Attribute changes to apply to one pet with {@link PetService#applyAttributeChanges}.
+ *
+ * @param petId the id of the pet
+ * @param upserts the attributes to insert, if they have no id, or update otherwise
+ * @param deletions the ids of the attributes to delete
+ */
+public record PetAttributeChanges(Integer petId, List<PetAttribute> upserts, Set<Integer> deletions) {
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory inverted index from attribute values to pet ids, for the attribute names
+ * listed in {@code petclinic.pets.attribute-index.names}.
+ * <p>
+ * Exact lookups are a single map access, and "contains" lookups scan the distinct values
+ * of one attribute name instead of every attribute row. The index is built when the
+ * application starts and the affected pets are reloaded whenever attributes are changed
+ * through {@link PetService} or owners are imported; other owner and pet changes leave it
+ * alone.
+ * </p>
+ * <p>
+ * The number of indexed attributes is exported as the
+ * {@code petclinic.pets.attribute-index.entries} metric.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.pets.attribute-index.names")
+public class PetAttributeIndex implements SmartInitializingSingleton, MeterBinder {
+
+	private final PetAttributeRepository attributes;
+
+	private final Set<String> names;
+
+	private final Map<String, Map<String, Set<Integer>>> petIdsByValue = new ConcurrentHashMap<>();
+
+	private final Map<Integer, List<PetAttributeValue>> valuesByPetId = new ConcurrentHashMap<>();
+
+	// serializes updates, held across the refresh query
+	private final ReentrantLock lock = new ReentrantLock();
+
+	public PetAttributeIndex(PetAttributeRepository attributes,
+			@Value("${petclinic.pets.attribute-index.names}") Set<String> names) {
+		this.attributes = attributes;
+		this.names = Set.copyOf(names);
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		for (PetAttributeValue value : this.attributes.findValuesByNameIn(this.names)) {
+			add(value);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onOwnersImported(OwnersImportedEvent event) {
+		refresh(event.petIds());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPetAttributesChanged(PetAttributesChangedEvent event) {
+		refresh(event.petIds());
+	}
+
+	/**
+	 * Reload the indexed attributes of the given pets from the database.
+	 * @param petIds the ids of the pets to reload
+	 */
+	public void refresh(Collection<Integer> petIds) {
+		if (petIds.isEmpty()) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			for (Integer petId : petIds) {
+				List<PetAttributeValue> previous = this.valuesByPetId.remove(petId);
+				if (previous != null) {
+					previous.forEach(this::remove);
+				}
+			}
+			for (PetAttributeValue value : this.attributes.findValuesByPetIdInAndNameIn(petIds, this.names)) {
+				add(value);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Return whether attributes with the given name are indexed.
+	 */
+	public boolean covers(String name) {
+		return this.names.contains(name);
+	}
+
+	/**
+	 * Return the ids of the pets having an attribute with the given name and value.
+	 */
+	public Set<Integer> findPetIds(String name, String value) {
+		Map<String, Set<Integer>> values = this.petIdsByValue.getOrDefault(name, Map.of());
+		return Set.copyOf(values.getOrDefault(value, Set.of()));
+	}
+
+	/**
+	 * Return the ids of the pets having an attribute with the given name whose value
+	 * contains the given text, ignoring case.
+	 */
+	public Set<Integer> findPetIdsContaining(String name, String text) {
+		String lowerText = text.toLowerCase(Locale.ROOT);
+		return this.petIdsByValue.getOrDefault(name, Map.of())
+			.entrySet()
+			.stream()
+			.filter(entry -> entry.getKey().toLowerCase(Locale.ROOT).contains(lowerText))
+			.flatMap(entry -> entry.getValue().stream())
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Return the number of indexed attributes.
+	 */
+	public int size() {
+		return this.valuesByPetId.values().stream().mapToInt(List::size).sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("petclinic.pets.attribute-index.entries", this, PetAttributeIndex::size)
+			.description("Number of pet attributes held by the in-memory attribute index")
+			.register(registry);
+	}
+
+	private void add(PetAttributeValue value) {
+		if (value.value() == null) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			this.petIdsByValue.computeIfAbsent(value.name(), name -> new ConcurrentHashMap<>())
+				.computeIfAbsent(value.value(), v -> ConcurrentHashMap.newKeySet())
+				.add(value.petId());
+			this.valuesByPetId.merge(value.petId(), List.of(value), (previous, added) -> {
+				List<PetAttributeValue> merged = new ArrayList<>(previous);
+				merged.addAll(added);
+				return List.copyOf(merged);
+			});
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void remove(PetAttributeValue value) {
+		Map<String, Set<Integer>> values = this.petIdsByValue.get(value.name());
+		if (values != null) {
+			values.computeIfPresent(value.value(), (v, petIds) -> {
+				petIds.remove(value.petId());
+				return petIds.isEmpty() ? null : petIds;
+			});
+		}
+	}
+
+}
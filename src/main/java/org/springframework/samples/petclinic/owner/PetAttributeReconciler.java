@@ -0,0 +1,75 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Compares the attributes submitted for a pet with the stored ones and works out the
+ * smallest set of changes, in time linear in the number of attributes.
+ * <p>
+ * Submitted attributes without a name are ignored. Submitted attributes are matched to
+ * stored ones by id: unknown ids are inserted as new attributes, matched attributes are
+ * only updated if their name or value changed, and stored attributes that were not
+ * submitted are deleted.
+ * </p>
+ */
+public class PetAttributeReconciler {
+
+	/**
+	 * Return the changes turning the stored attributes into the submitted ones.
+	 * @param petId the id of the pet
+	 * @param stored the attributes currently stored for the pet
+	 * @param submitted the attributes submitted for the pet
+	 * @return the attributes to insert, update and delete
+	 */
+	public PetAttributeChanges reconcile(Integer petId, Collection<PetAttribute> stored,
+			Collection<PetAttribute> submitted) {
+		Map<Integer, PetAttribute> storedById = new HashMap<>();
+		for (PetAttribute attr : stored) {
+			storedById.put(attr.getId(), attr);
+		}
+		List<PetAttribute> upserts = new ArrayList<>();
+		Set<Integer> kept = new HashSet<>();
+		for (PetAttribute attr : submitted) {
+			if (!StringUtils.hasText(attr.getName())) {
+				continue;
+			}
+			PetAttribute current = (attr.getId() != null) ? storedById.get(attr.getId()) : null;
+			if (current == null) {
+				attr.setId(null);
+				upserts.add(attr);
+			}
+			else if (kept.add(attr.getId()) && (!Objects.equals(current.getName(), attr.getName())
+					|| !Objects.equals(current.getValue(), attr.getValue()))) {
+				upserts.add(attr);
+			}
+		}
+		Set<Integer> deletions = new HashSet<>(storedById.keySet());
+		deletions.removeAll(kept);
+		return new PetAttributeChanges(petId, upserts, deletions);
+	}
+
+}
@@ -1,8 +1,10 @@
 package org.springframework.samples.petclinic.owner;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -10,4 +12,19 @@ public interface PetAttributeRepository extends JpaRepository<PetAttribute, Inte
 
 	List<PetAttribute> findByPetId(Integer petId);
 
+	List<PetAttribute> findByPetIdIn(Collection<Integer> petIds);
+
+	/**
+	 * Retrieve the values of all attributes with one of the given names.
+	 */
+	@Query("SELECT new org.springframework.samples.petclinic.owner.PetAttributeValue(attribute.pet.id, attribute.name, attribute.value) FROM PetAttribute attribute WHERE attribute.name IN :names")
+	List<PetAttributeValue> findValuesByNameIn(Collection<String> names);
+
+	/**
+	 * Retrieve the values of the attributes of the given pets with one of the given
+	 * names.
+	 */
+	@Query("SELECT new org.springframework.samples.petclinic.owner.PetAttributeValue(attribute.pet.id, attribute.name, attribute.value) FROM PetAttribute attribute WHERE attribute.pet.id IN :petIds AND attribute.name IN :names")
+	List<PetAttributeValue> findValuesByPetIdInAndNameIn(Collection<Integer> petIds, Collection<String> names);
+
 }
\ No newline at end of file
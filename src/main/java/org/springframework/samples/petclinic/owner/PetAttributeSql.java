@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Plain SQL statements on the {@code pet_attributes} table, for writes that bypass JPA.
+ * <p>
+ * {@code value} is a keyword in some databases, so statements refer to the column as
+ * {@code %1$svalue%1$s} and are completed with the identifier quote of the database in
+ * use, which is only known once connected.
+ * </p>
+ */
+final class PetAttributeSql {
+
+	private static final String INSERT = "INSERT INTO pet_attributes (id, pet_id, name, %1$svalue%1$s) VALUES (?, ?, ?, ?)";
+
+	private static final String UPDATE = "UPDATE pet_attributes SET name = ?, %1$svalue%1$s = ? WHERE id = ? AND pet_id = ?";
+
+	private static final String DELETE = "DELETE FROM pet_attributes WHERE id = ? AND pet_id = ?";
+
+	private final String quote;
+
+	private PetAttributeSql(String quote) {
+		this.quote = quote;
+	}
+
+	/**
+	 * Return the statements for the database behind the given template.
+	 */
+	static PetAttributeSql forDatabase(JdbcTemplate jdbcTemplate) {
+		return new PetAttributeSql(jdbcTemplate
+			.execute((ConnectionCallback<String>) con -> con.getMetaData().getIdentifierQuoteString().trim()));
+	}
+
+	/**
+	 * Insert an attribute, with the attribute id, pet id, name and value as parameters.
+	 */
+	String insert() {
+		return format(INSERT);
+	}
+
+	/**
+	 * Update an attribute of a pet, with the new name and value, the attribute id and the
+	 * pet id as parameters.
+	 */
+	String update() {
+		return format(UPDATE);
+	}
+
+	/**
+	 * Delete an attribute of a pet, with the attribute id and the pet id as parameters.
+	 */
+	String delete() {
+		return DELETE;
+	}
+
+	/**
+	 * Complete the given statement, quoting {@code %1$svalue%1$s} for this database.
+	 */
+	String format(String sql) {
+		return String.format(sql, this.quote);
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Form object receiving the attribute rows submitted with the pet form.
+ * <p>
+ * The rows are bound to a list, which grows as rows are added in the browser, rather than
+ * to the attributes of the pet itself, so the submitted state can be compared with the
+ * stored one.
+ * </p>
+ */
+public class PetAttributesForm {
+
+	private List<PetAttribute> attributes = new ArrayList<>();
+
+	public List<PetAttribute> getAttributes() {
+		return this.attributes;
+	}
+
+	public void setAttributes(List<PetAttribute> attributes) {
+		this.attributes = attributes;
+	}
+
+}
@@ -17,9 +17,6 @@ package org.springframework.samples.petclinic.owner;
 
 import java.time.LocalDate;
 import java.util.Collection;
-import java.util.Optional;
-import java.util.Iterator;
-import java.util.Set;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
@@ -48,29 +45,33 @@ class PetController {
 
 	private static final String VIEWS_PETS_CREATE_OR_UPDATE_FORM = "pets/createOrUpdatePetForm";
 
+	private final PetAttributeReconciler attributeReconciler = new PetAttributeReconciler();
+
 	private final OwnerRepository owners;
 
-	private final PetTypeRepository types;
+	private final PetTypeRegistry types;
 
 	private final PetService petService;
 
-	public PetController(OwnerRepository owners, PetTypeRepository types, PetService petService) {
+	private final OwnerLoader ownerLoader;
+
+	public PetController(OwnerRepository owners, PetTypeRegistry types, PetService petService,
+			OwnerLoader ownerLoader) {
 		this.owners = owners;
 		this.types = types;
 		this.petService = petService;
+		this.ownerLoader = ownerLoader;
 	}
 
 	@ModelAttribute("types")
 	public Collection<PetType> populatePetTypes() {
-		return this.types.findPetTypes();
+		return this.types.findAll();
 	}
 
 	@ModelAttribute("owner")
-	public Owner findOwner(@PathVariable("ownerId") int ownerId) {
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		return owner;
+	public Owner findOwner(@PathVariable("ownerId") int ownerId,
+			@PathVariable(name = "petId", required = false) Integer petId) {
+		return loadOwner(ownerId, petId);
 	}
 
 	@ModelAttribute("pet")
@@ -81,20 +82,28 @@ class PetController {
 			return new Pet();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
-				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		return owner.getPet(petId);
+		return loadOwner(ownerId, petId).getPet(petId);
+	}
+
+	/**
+	 * Load the owner with its pets, including their attributes only when a specific pet
+	 * is being edited. Both model attributes share the owner loaded for this request.
+	 */
+	private Owner loadOwner(int ownerId, Integer petId) {
+		return petId == null ? this.ownerLoader.withPets(ownerId) : this.ownerLoader.withPetsAndAttributes(ownerId);
 	}
 
 	@InitBinder("owner")
 	public void initOwnerBinder(WebDataBinder dataBinder) {
-		dataBinder.setDisallowedFields("id");
+		dataBinder.setDisallowedFields("id", "version");
 	}
 
 	@InitBinder("pet")
 	public void initPetBinder(WebDataBinder dataBinder) {
 		dataBinder.setValidator(new PetValidator());
+		// Attribute rows are bound to a PetAttributesForm instead, the version is kept
+		// from the loaded pet
+		dataBinder.setDisallowedFields("attributes*", "version");
 	}
 
 	@GetMapping("/pets/new")
@@ -106,7 +115,7 @@ class PetController {
 
 	@PostMapping("/pets/new")
 	public String processCreationForm(Owner owner, @Valid Pet pet, BindingResult result,
-			RedirectAttributes redirectAttributes) {
+			PetAttributesForm attributesForm, RedirectAttributes redirectAttributes, ModelMap model) {
 
 		if (StringUtils.hasText(pet.getName()) && pet.isNew() && owner.getPet(pet.getName(), true) != null)
 			result.rejectValue("name", "duplicate", "already exists");
@@ -117,35 +126,32 @@ class PetController {
 		}
 
 		if (result.hasErrors()) {
+			// Show the rows as submitted, they are not bound to the pet
+			model.put("attributes", attributesForm.getAttributes());
 			return VIEWS_PETS_CREATE_OR_UPDATE_FORM;
 		}
 
-		owner.addPet(pet);
-		// Filter out attributes with empty names and set pet reference
-		Iterator<PetAttribute> it = pet.getAttributes().iterator();
-		while (it.hasNext()) {
-			PetAttribute attr = it.next();
-			if (attr.getName() == null || attr.getName().trim().isEmpty()) {
-				it.remove();
-			}
-			else {
-				attr.setPet(pet);
+		// Skip attribute rows left without a name
+		for (PetAttribute attr : attributesForm.getAttributes()) {
+			if (StringUtils.hasText(attr.getName())) {
+				attr.setId(null);
+				pet.addAttribute(attr);
 			}
 		}
-		this.owners.save(owner);
+		this.petService.addPet(owner, pet);
 		redirectAttributes.addFlashAttribute("message", "New Pet has been Added");
 		return "redirect:/owners/{ownerId}";
 	}
 
 	@GetMapping("/pets/{petId}/edit")
 	public String initUpdateForm(@PathVariable("petId") int petId, ModelMap model, @ModelAttribute("pet") Pet pet) {
-		// Attributes are loaded eagerly with pet, so just add to model for form
+		// Attributes are fetched along with the pet, so just add to model for form
 		model.put("attributes", pet.getAttributes());
 		return VIEWS_PETS_CREATE_OR_UPDATE_FORM;
 	}
 
 	@PostMapping("/pets/{petId}/edit")
-	public String processUpdateForm(Owner owner, @Valid Pet pet, BindingResult result,
+	public String processUpdateForm(Owner owner, @Valid Pet pet, BindingResult result, PetAttributesForm attributesForm,
 			RedirectAttributes redirectAttributes, ModelMap model) {
 		String petName = pet.getName();
 		if (StringUtils.hasText(petName)) {
@@ -159,44 +165,23 @@ class PetController {
 			result.rejectValue("birthDate", "typeMismatch.birthDate");
 		}
 		if (result.hasErrors()) {
-			model.put("attributes", pet.getAttributes());
+			model.put("attributes", attributesForm.getAttributes());
 			return VIEWS_PETS_CREATE_OR_UPDATE_FORM;
 		}
-		// Handle dynamic attributes
 		Pet existingPet = owner.getPet(pet.getId());
 		if (existingPet != null) {
 			existingPet.setName(pet.getName());
 			existingPet.setBirthDate(pet.getBirthDate());
 			existingPet.setType(pet.getType());
-			// Update attributes
-			Set<PetAttribute> updatedAttributes = pet.getAttributes();
-			// Remove attributes not present in updated list
-			Iterator<PetAttribute> it = existingPet.getAttributes().iterator();
-			while (it.hasNext()) {
-				PetAttribute attr = it.next();
-				if (updatedAttributes.stream().noneMatch(a -> a.getId() != null && a.getId().equals(attr.getId()))) {
-					it.remove();
-				}
-			}
-			// Add or update attributes
-			for (PetAttribute updatedAttr : updatedAttributes) {
-				if (updatedAttr.getId() == null) {
-					existingPet.addAttribute(updatedAttr);
-				}
-				else {
-					for (PetAttribute attr : existingPet.getAttributes()) {
-						if (attr.getId() != null && attr.getId().equals(updatedAttr.getId())) {
-							attr.setName(updatedAttr.getName());
-							attr.setValue(updatedAttr.getValue());
-						}
-					}
-				}
-			}
+			// Only attributes that were added, changed or removed are written
+			PetAttributeChanges changes = this.attributeReconciler.reconcile(existingPet.getId(),
+					existingPet.getAttributes(), attributesForm.getAttributes());
+			this.petService.savePet(owner, changes);
 		}
 		else {
 			owner.addPet(pet);
+			this.owners.save(owner);
 		}
-		this.owners.save(owner);
 		redirectAttributes.addFlashAttribute("message", "Pet details has been edited");
 		return "redirect:/owners/{ownerId}";
 	}
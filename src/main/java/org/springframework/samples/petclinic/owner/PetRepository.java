@@ -1,9 +1,23 @@
 package org.springframework.samples.petclinic.owner;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Integer> {
 
+	/**
+	 * Retrieve the pets having an attribute with the given name and value, using the
+	 * index on the attribute name and value.
+	 */
+	List<Pet> findDistinctByAttributesNameAndAttributesValue(String name, String value);
+
+	/**
+	 * Retrieve the pets having an attribute with the given name whose value contains the
+	 * given text, ignoring case. Only the attribute name can use the index.
+	 */
+	List<Pet> findDistinctByAttributesNameAndAttributesValueContainingIgnoreCase(String name, String text);
+
 }
\ No newline at end of file
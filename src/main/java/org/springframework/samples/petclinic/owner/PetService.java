@@ -1,12 +1,22 @@
 package org.springframework.samples.petclinic.owner;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 public class PetService {
 
@@ -14,10 +24,32 @@ public class PetService {
 
 	private final PetRepository petRepository;
 
+	private final ObjectProvider<PetAttributeIndex> attributeIndex;
+
+	private final ApplicationEventPublisher events;
+
+	private final OwnerRepository ownerRepository;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final EntityManager entityManager;
+
+	private final EntityIds ids;
+
+	private volatile PetAttributeSql attributeSql;
+
 	@Autowired
-	public PetService(PetAttributeRepository petAttributeRepository, PetRepository petRepository) {
+	public PetService(PetAttributeRepository petAttributeRepository, PetRepository petRepository,
+			ObjectProvider<PetAttributeIndex> attributeIndex, ApplicationEventPublisher events,
+			OwnerRepository ownerRepository, JdbcTemplate jdbcTemplate, EntityManager entityManager, EntityIds ids) {
 		this.petAttributeRepository = petAttributeRepository;
 		this.petRepository = petRepository;
+		this.attributeIndex = attributeIndex;
+		this.events = events;
+		this.ownerRepository = ownerRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.entityManager = entityManager;
+		this.ids = ids;
 	}
 
 	// PetAttribute CRUD
@@ -33,6 +65,8 @@ public class PetService {
 		attr.setPet(pet);
 		attr.setName(name);
 		attr.setValue(value);
+		ownerRepository.incrementVersionOfPetOwners(List.of(petId));
+		events.publishEvent(new PetAttributesChangedEvent(List.of(petId)));
 		return petAttributeRepository.save(attr);
 	}
 
@@ -41,12 +75,146 @@ public class PetService {
 		PetAttribute attr = petAttributeRepository.findById(attributeId).orElseThrow();
 		attr.setName(name);
 		attr.setValue(value);
+		ownerRepository.incrementVersionOfPetOwners(List.of(attr.getPet().getId()));
+		events.publishEvent(new PetAttributesChangedEvent(List.of(attr.getPet().getId())));
 		return petAttributeRepository.save(attr);
 	}
 
 	@Transactional
 	public void deletePetAttribute(Integer attributeId) {
-		petAttributeRepository.deleteById(attributeId);
+		petAttributeRepository.findById(attributeId).ifPresent(attr -> {
+			petAttributeRepository.delete(attr);
+			ownerRepository.incrementVersionOfPetOwners(List.of(attr.getPet().getId()));
+			events.publishEvent(new PetAttributesChangedEvent(List.of(attr.getPet().getId())));
+		});
+	}
+
+	// PetAttribute batch operations
+	/**
+	 * Apply the given attribute changes, for one or many pets, in a single transaction
+	 * with one batched statement each for deletes, updates and inserts.
+	 * <p>
+	 * Pending JPA changes are flushed first and the persistence context is cleared
+	 * afterwards, as the rows are written with plain JDBC. Updates and deletes only apply
+	 * to attributes of the given pet.
+	 * </p>
+	 * @param changes the changes to apply
+	 * @return the resulting attributes of each pet by pet id
+	 * @throws IllegalArgumentException if an attribute to insert or update has no name
+	 */
+	@Transactional
+	public Map<Integer, List<PetAttribute>> applyAttributeChanges(Collection<PetAttributeChanges> changes) {
+		List<Object[]> inserts = new ArrayList<>();
+		List<Object[]> updates = new ArrayList<>();
+		List<Object[]> deletes = new ArrayList<>();
+		Map<Integer, List<PetAttribute>> result = new LinkedHashMap<>();
+		for (PetAttributeChanges change : changes) {
+			result.put(change.petId(), new ArrayList<>());
+			for (PetAttribute attr : change.upserts()) {
+				if (!StringUtils.hasText(attr.getName())) {
+					throw new IllegalArgumentException("Attribute name must not be blank for pet " + change.petId());
+				}
+				if (attr.getId() == null) {
+					inserts.add(new Object[] { this.ids.next(PetAttribute.class), change.petId(), attr.getName(),
+							attr.getValue() });
+				}
+				else {
+					updates.add(new Object[] { attr.getName(), attr.getValue(), attr.getId(), change.petId() });
+				}
+			}
+			for (Integer id : change.deletions()) {
+				deletes.add(new Object[] { id, change.petId() });
+			}
+		}
+		if (result.isEmpty()) {
+			return result;
+		}
+		entityManager.flush();
+		PetAttributeSql sql = attributeSql();
+		batchUpdate(sql.delete(), deletes);
+		batchUpdate(sql.update(), updates);
+		batchUpdate(sql.insert(), inserts);
+		ownerRepository.incrementVersionOfPetOwners(result.keySet());
+		entityManager.clear();
+		for (PetAttribute attr : petAttributeRepository.findByPetIdIn(result.keySet())) {
+			result.get(attr.getPet().getId()).add(attr);
+		}
+		events.publishEvent(new PetAttributesChangedEvent(List.copyOf(result.keySet())));
+		return result;
+	}
+
+	/**
+	 * Add a new pet to the given owner and save them, announcing the attributes the pet
+	 * was created with.
+	 * @param owner the owner of the pet
+	 * @param pet the new pet, with its attributes
+	 * @return the saved owner
+	 */
+	@Transactional
+	public Owner addPet(Owner owner, Pet pet) {
+		owner.addPet(pet);
+		Owner saved = ownerRepository.save(owner);
+		if (!pet.getAttributes().isEmpty()) {
+			events.publishEvent(new PetAttributesChangedEvent(List.of(saved.getPet(pet.getName()).getId())));
+		}
+		return saved;
+	}
+
+	/**
+	 * Save the given owner with the changes made to one of its pets, and apply the
+	 * attribute changes of that pet in the same transaction.
+	 * @param owner the owner of the pet
+	 * @param changes the attribute changes of the pet
+	 * @return the resulting attributes of the pet
+	 */
+	@Transactional
+	public List<PetAttribute> savePet(Owner owner, PetAttributeChanges changes) {
+		ownerRepository.save(owner);
+		return applyAttributeChanges(List.of(changes)).get(changes.petId());
+	}
+
+	private void batchUpdate(String sql, List<Object[]> batchArgs) {
+		if (!batchArgs.isEmpty()) {
+			jdbcTemplate.batchUpdate(sql, batchArgs);
+		}
+	}
+
+	private PetAttributeSql attributeSql() {
+		PetAttributeSql sql = this.attributeSql;
+		if (sql == null) {
+			sql = PetAttributeSql.forDatabase(jdbcTemplate);
+			this.attributeSql = sql;
+		}
+		return sql;
+	}
+
+	// PetAttribute search
+	/**
+	 * Find the pets having an attribute with the given name and value, e.g. a given
+	 * microchip number. Served from the {@link PetAttributeIndex} when it covers the
+	 * name.
+	 */
+	@Transactional(readOnly = true)
+	public List<Pet> findPetsByAttribute(String name, String value) {
+		PetAttributeIndex index = attributeIndex.getIfAvailable();
+		if (index != null && index.covers(name)) {
+			return petRepository.findAllById(index.findPetIds(name, value));
+		}
+		return petRepository.findDistinctByAttributesNameAndAttributesValue(name, value);
+	}
+
+	/**
+	 * Find the pets having an attribute with the given name whose value contains the
+	 * given text, ignoring case, e.g. allergies containing "penicillin". Served from the
+	 * {@link PetAttributeIndex} when it covers the name.
+	 */
+	@Transactional(readOnly = true)
+	public List<Pet> findPetsByAttributeContaining(String name, String text) {
+		PetAttributeIndex index = attributeIndex.getIfAvailable();
+		if (index != null && index.covers(name)) {
+			return petRepository.findAllById(index.findPetIdsContaining(name, text));
+		}
+		return petRepository.findDistinctByAttributesNameAndAttributesValueContainingIgnoreCase(name, text);
 	}
 
 	// Optionally, methods for Pet CRUD can be added here as well
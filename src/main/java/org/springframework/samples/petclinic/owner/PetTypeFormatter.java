@@ -19,7 +19,6 @@ import org.springframework.format.Formatter;
 import org.springframework.stereotype.Component;
 
 import java.text.ParseException;
-import java.util.Collection;
 import java.util.Locale;
 
 /**
@@ -35,9 +34,9 @@ import java.util.Locale;
 @Component
 public class PetTypeFormatter implements Formatter<PetType> {
 
-	private final PetTypeRepository types;
+	private final PetTypeRegistry types;
 
-	public PetTypeFormatter(PetTypeRepository types) {
+	public PetTypeFormatter(PetTypeRegistry types) {
 		this.types = types;
 	}
 
@@ -48,13 +47,7 @@ public class PetTypeFormatter implements Formatter<PetType> {
 
 	@Override
 	public PetType parse(String text, Locale locale) throws ParseException {
-		Collection<PetType> findPetTypes = this.types.findPetTypes();
-		for (PetType type : findPetTypes) {
-			if (type.getName().equals(text)) {
-				return type;
-			}
-		}
-		throw new ParseException("type not found: " + text, 0);
+		return this.types.findByName(text).orElseThrow(() -> new ParseException("type not found: " + text, 0));
 	}
 
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Holds the {@link PetType}s in memory, so that binding and rendering pet forms does not
+ * query the database.
+ * <p>
+ * The types are loaded when the application starts and kept in an immutable snapshot with
+ * lookups by name and by id. The snapshot is replaced as a whole whenever a pet type is
+ * added, changed or removed.
+ * </p>
+ */
+@Component
+public class PetTypeRegistry implements SmartInitializingSingleton {
+
+	private final PetTypeRepository types;
+
+	private volatile Snapshot snapshot = new Snapshot(List.of());
+
+	public PetTypeRegistry(PetTypeRepository types) {
+		this.types = types;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		refresh();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onPetTypesChanged(PetTypesChangedEvent event) {
+		refresh();
+	}
+
+	/**
+	 * Reload the pet types from the database.
+	 */
+	public void refresh() {
+		this.snapshot = new Snapshot(this.types.findPetTypes());
+	}
+
+	/**
+	 * Return all pet types, ordered by name.
+	 */
+	public List<PetType> findAll() {
+		return this.snapshot.all();
+	}
+
+	/**
+	 * Return the pet type with the given name.
+	 */
+	public Optional<PetType> findByName(String name) {
+		return Optional.ofNullable(this.snapshot.byName().get(name));
+	}
+
+	/**
+	 * Return the pet type with the given id.
+	 */
+	public Optional<PetType> findById(Integer id) {
+		return Optional.ofNullable(this.snapshot.byId().get(id));
+	}
+
+	private record Snapshot(List<PetType> all, Map<String, PetType> byName, Map<Integer, PetType> byId) {
+
+		Snapshot(List<PetType> all) {
+			this(List.copyOf(all),
+					all.stream().collect(Collectors.toUnmodifiableMap(PetType::getName, Function.identity())),
+					all.stream()
+						.filter(type -> type.getId() != null)
+						.collect(Collectors.toUnmodifiableMap(PetType::getId, Function.identity())));
+		}
+
+	}
+
+}
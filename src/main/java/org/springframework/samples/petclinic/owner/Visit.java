@@ -23,6 +23,7 @@ import org.springframework.samples.petclinic.model.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -42,6 +43,9 @@ public class Visit extends BaseEntity {
 	@NotBlank
 	private String description;
 
+	@Version
+	private Integer version;
+
 	/**
 	 * Creates a new instance of Visit for the current date
 	 */
@@ -49,6 +53,14 @@ public class Visit extends BaseEntity {
 		this.date = LocalDate.now();
 	}
 
+	public Integer getVersion() {
+		return this.version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	public LocalDate getDate() {
 		return this.date;
 	}
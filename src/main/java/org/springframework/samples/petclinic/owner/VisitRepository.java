@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository class for appending {@link Visit} domain objects to a pet without loading or
+ * merging the owner aggregate.
+ */
+public interface VisitRepository extends Repository<Visit, Integer> {
+
+	/**
+	 * Count the pets with the given id belonging to the given owner, i.e. 1 if the pet
+	 * belongs to the owner and 0 otherwise.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @return the number of matching pets
+	 */
+	@Query("SELECT COUNT(pet) FROM Owner owner JOIN owner.pets pet WHERE owner.id = :ownerId AND pet.id = :petId")
+	long countPetsOfOwner(@Param("ownerId") Integer ownerId, @Param("petId") Integer petId);
+
+	/**
+	 * Insert a single visit row for the given pet.
+	 * @param id the id of the visit
+	 * @param petId the id of the pet
+	 * @param date the date of the visit
+	 * @param description the description of the visit
+	 * @return the number of inserted rows
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO visits (id, pet_id, visit_date, description) VALUES (:id, :petId, :date, :description)",
+			nativeQuery = true)
+	int insert(@Param("id") Integer id, @Param("petId") Integer petId, @Param("date") LocalDate date,
+			@Param("description") String description);
+
+}
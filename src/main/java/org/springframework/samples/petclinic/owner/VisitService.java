@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Books visits by inserting the visit row directly, so the cost of a booking does not
+ * depend on how many pets, visits or attributes the owner already has.
+ */
+@Service
+public class VisitService {
+
+	private final VisitRepository visits;
+
+	private final OwnerRepository owners;
+
+	private final EntityIds ids;
+
+	public VisitService(VisitRepository visits, OwnerRepository owners, EntityIds ids) {
+		this.visits = visits;
+		this.owners = owners;
+		this.ids = ids;
+	}
+
+	/**
+	 * Add a visit to the given pet of the given owner.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @param visit the visit to add
+	 * @throws IllegalArgumentException if the pet does not belong to the owner
+	 */
+	@Transactional
+	public void addVisit(int ownerId, int petId, Visit visit) {
+		if (this.visits.countPetsOfOwner(ownerId, petId) == 0) {
+			throw new IllegalArgumentException(
+					"Pet with id: " + petId + " not found for owner with id: " + ownerId + ".");
+		}
+		this.visits.insert(this.ids.next(Visit.class), petId, visit.getDate(), visit.getDescription());
+		this.owners.incrementVersion(ownerId);
+	}
+
+}
@@ -13,41 +13,67 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.springframework.samples.petclinic.system;
 
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.vet.VetRepository;
 
-import javax.cache.configuration.MutableConfiguration;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 
 /**
- * Cache configuration intended for caches providing the JCache API. This configuration
- * creates the used cache for the application and enables statistics that become
- * accessible via JMX.
+ * Cache configuration.
+ * <p>
+ * Each cache is built from its own Caffeine spec (e.g.
+ * {@code maximumSize=100,expireAfterWrite=1h,refreshAfterWrite=10m}) so size and
+ * freshness can be tuned per cache. Caches are loading caches backed by uncached
+ * repository queries, which lets Caffeine refresh entries in the background once they
+ * pass {@code refreshAfterWrite} while callers keep getting the previous value. With
+ * {@code spring.threads.virtual.enabled}, loads run on the application task executor,
+ * which then starts a virtual thread per task, and callers wait for their result: a query
+ * never runs while Caffeine holds the monitor of a map entry, which would pin the carrier
+ * thread of the calling virtual thread. Statistics are always recorded and exported
+ * through Micrometer as {@code cache.gets}, {@code cache.evictions},
+ * {@code cache.load.duration} etc., tagged with the cache name.
  */
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
 class CacheConfiguration {
 
 	@Bean
-	public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
-		return cm -> cm.createCache("vets", cacheConfiguration());
+	public CacheManagerCustomizer<CaffeineCacheManager> petclinicCacheConfigurationCustomizer(
+			ObjectProvider<VetRepository> vets,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) ObjectProvider<Executor> executor,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+			@Value("${petclinic.cache.vets.spec:maximumSize=1,expireAfterWrite=1h}") String vetsSpec,
+			@Value("${petclinic.cache.vet-pages.spec:maximumSize=100,expireAfterWrite=1h}") String vetPagesSpec) {
+		Executor loadExecutor = virtualThreads ? executor.getObject() : null;
+		return cm -> {
+			register(cm, "vets", vetsSpec, loadExecutor, key -> vets.getObject().findAllBy());
+			register(cm, "vetPages", vetPagesSpec, loadExecutor, key -> vets.getObject().findAllBy((Pageable) key));
+		};
 	}
 
-	/**
-	 * Create a simple configuration that enable statistics via the JCache programmatic
-	 * configuration API.
-	 * <p>
-	 * Within the configuration object that is provided by the JCache API standard, there
-	 * is only a very limited set of configuration options. The really relevant
-	 * configuration options (like the size limit) must be set via a configuration
-	 * mechanism that is provided by the selected JCache implementation.
-	 */
-	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
-		return new MutableConfiguration<>().setStatisticsEnabled(true);
+	private void register(CaffeineCacheManager cacheManager, String name, String spec, Executor loadExecutor,
+			CacheLoader<Object, Object> loader) {
+		Caffeine<Object, Object> caffeine = Caffeine.from(spec).recordStats();
+		if (loadExecutor != null) {
+			cacheManager.registerCustomCache(name, caffeine.executor(loadExecutor).buildAsync(loader));
+		}
+		else {
+			cacheManager.registerCustomCache(name, caffeine.build(loader));
+		}
 	}
 
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+/**
+ * Marker for application events announcing a change that makes locally cached data stale.
+ * <p>
+ * When a {@link CacheInvalidationBus} is configured, these events are relayed to the
+ * other nodes and published there again, so that every node drops the same cached data.
+ * Implementations are serialized as JSON and must be deserializable from their
+ * properties.
+ * </p>
+ */
+public interface CacheInvalidation {
+
+	/**
+	 * Whether the change affects entities held in Hibernate's second-level cache, which
+	 * other nodes then have to evict as well.
+	 */
+	default boolean evictsSecondLevelCache() {
+		return false;
+	}
+
+}
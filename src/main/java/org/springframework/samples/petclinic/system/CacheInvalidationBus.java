@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CacheInvalidation cache invalidations} between the nodes running the
+ * application.
+ */
+public interface CacheInvalidationBus {
+
+	/**
+	 * Send the given message to the other nodes. Called from within the transaction
+	 * making the change, if any, and must not deliver the message unless it commits.
+	 */
+	void publish(Message message);
+
+	/**
+	 * Register a receiver for the messages published by other nodes.
+	 */
+	void subscribe(Consumer<Message> receiver);
+
+	/**
+	 * A serialized invalidation.
+	 *
+	 * @param origin the id of the node that published it
+	 * @param type the class name of the {@link CacheInvalidation} event
+	 * @param payload the event as JSON
+	 */
+	record Message(String origin, String type, String payload) {
+	}
+
+}
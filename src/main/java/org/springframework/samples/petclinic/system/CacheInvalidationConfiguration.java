@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Cache invalidation across nodes.
+ * <p>
+ * Enabled by setting {@code petclinic.cache.invalidation.bus} to {@code jdbc}, for
+ * replicas sharing a database, or {@code local}, for application contexts sharing a JVM.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("petclinic.cache.invalidation.bus")
+class CacheInvalidationConfiguration {
+
+	@Bean
+	public CacheInvalidationBus cacheInvalidationBus(@Value("${petclinic.cache.invalidation.bus}") String type,
+			ObjectProvider<JdbcTemplate> jdbc,
+			@Value("${petclinic.cache.invalidation.poll-interval:1s}") Duration pollInterval,
+			@Value("${petclinic.cache.invalidation.gap-timeout:10s}") Duration gapTimeout,
+			@Value("${petclinic.cache.invalidation.retention:1h}") Duration retention) {
+		return switch (type) {
+			case "jdbc" -> new JdbcCacheInvalidationBus(jdbc.getObject(), pollInterval, gapTimeout, retention);
+			case "local" -> new LocalCacheInvalidationBus();
+			default -> throw new IllegalArgumentException("Unknown cache invalidation bus: " + type);
+		};
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus.Message;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Relays {@link CacheInvalidation} events between this node and the others through a
+ * {@link CacheInvalidationBus}.
+ * <p>
+ * Events published here are sent when they are published, so that a bus can make them
+ * part of the transaction making the change. Events received from other nodes are
+ * published again locally, after evicting Hibernate's second-level cache where needed, so
+ * the listeners keeping local caches up to date handle them as if the change had been
+ * made here.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty("petclinic.cache.invalidation.bus")
+public class CacheInvalidationRelay implements SmartInitializingSingleton {
+
+	private static final Log logger = LogFactory.getLog(CacheInvalidationRelay.class);
+
+	private final String origin = UUID.randomUUID().toString();
+
+	private final ThreadLocal<Message> receiving = new ThreadLocal<>();
+
+	private final CacheInvalidationBus bus;
+
+	private final ApplicationEventPublisher events;
+
+	private final ObjectMapper objectMapper;
+
+	private final ObjectWriter objectWriter;
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	public CacheInvalidationRelay(CacheInvalidationBus bus, ApplicationEventPublisher events, ObjectMapper objectMapper,
+			EntityManagerFactory entityManagerFactory) {
+		this.bus = bus;
+		this.events = events;
+		this.objectMapper = objectMapper;
+		// Events such as VetsChangedEvent carry no properties
+		this.objectWriter = objectMapper.writer().without(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		this.bus.subscribe(this::receive);
+	}
+
+	@EventListener
+	public void onInvalidation(CacheInvalidation event) {
+		if (this.receiving.get() != null) {
+			return;
+		}
+		try {
+			this.bus.publish(
+					new Message(this.origin, event.getClass().getName(), this.objectWriter.writeValueAsString(event)));
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Cannot serialize " + event, ex);
+		}
+	}
+
+	void receive(Message message) {
+		if (this.origin.equals(message.origin())) {
+			return;
+		}
+		CacheInvalidation event;
+		try {
+			Class<?> type = ClassUtils.forName(message.type(), getClass().getClassLoader());
+			event = (CacheInvalidation) this.objectMapper.readValue(message.payload(),
+					type.asSubclass(CacheInvalidation.class));
+		}
+		catch (ClassNotFoundException | ClassCastException | JsonProcessingException ex) {
+			// e.g. sent by a newer version of the application during a rolling update
+			logger.warn("Ignoring cache invalidation of type " + message.type(), ex);
+			return;
+		}
+		if (event.evictsSecondLevelCache()) {
+			this.entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+		}
+		this.receiving.set(message);
+		try {
+			this.events.publishEvent(event);
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Failed to apply cache invalidation " + event, ex);
+		}
+		finally {
+			this.receiving.remove();
+		}
+	}
+
+}
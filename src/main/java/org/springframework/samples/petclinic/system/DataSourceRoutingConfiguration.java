@@ -0,0 +1,128 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Read/write splitting between a primary database and a read replica.
+ * <p>
+ * Enabled by setting {@code petclinic.datasource.replica.url}. Each database gets its own
+ * Hikari pool, tuned through {@code spring.datasource.hikari.*} and
+ * {@code petclinic.datasource.replica.hikari.*} respectively. The {@code DataSource} used
+ * by JPA and JDBC only takes a connection once the first statement runs, and takes it
+ * from the replica when the transaction is read-only
+ * ({@code @Transactional(readOnly = true)}), from the primary otherwise. See
+ * {@link ReplicaDataSource} for when reads fall back to the primary.
+ * </p>
+ * <p>
+ * An embedded replica cannot follow the primary, so it is initialized with the same
+ * scripts as the primary instead, which lets two in-memory H2 databases stand in for a
+ * primary and its replica.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${petclinic.datasource.replica.url:}'.isEmpty()")
+class DataSourceRoutingConfiguration {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties,
+			ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+		JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+		HikariDataSource dataSource = (details != null) ? DataSourceBuilder.create(properties.getClassLoader())
+			.type(HikariDataSource.class)
+			.driverClassName(details.getDriverClassName())
+			.url(details.getJdbcUrl())
+			.username(details.getUsername())
+			.password(details.getPassword())
+			.build() : properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	@ConfigurationProperties("petclinic.datasource.replica.hikari")
+	public HikariDataSource replicaDataSource(@Value("${petclinic.datasource.replica.url}") String url,
+			@Value("${petclinic.datasource.replica.username:}") String username,
+			@Value("${petclinic.datasource.replica.password:}") String password) {
+		HikariDataSource dataSource = DataSourceBuilder.create()
+			.type(HikariDataSource.class)
+			.url(url)
+			.username(StringUtils.hasText(username) ? username : null)
+			.password(StringUtils.hasText(password) ? password : null)
+			.build();
+		dataSource.setPoolName("replica");
+		return dataSource;
+	}
+
+	@Bean
+	public ReplicaDataSource readOnlyDataSource(@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${petclinic.datasource.replica.max-lag:1s}") Duration maxLag,
+			@Value("${petclinic.datasource.replica.retry-interval:30s}") Duration retryInterval,
+			@Value("${petclinic.datasource.replica.lag-query:}") String lagQuery,
+			@Value("${petclinic.datasource.replica.lag-check-interval:5s}") Duration lagCheckInterval) {
+		return new ReplicaDataSource(primary, replica, maxLag, retryInterval, lagQuery, lagCheckInterval);
+	}
+
+	@Bean
+	@Primary
+	public LazyConnectionDataSourceProxy dataSource(ReplicaDataSource readOnlyDataSource) {
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(readOnlyDataSource.writes());
+		dataSource.setReadOnlyDataSource(readOnlyDataSource);
+		return dataSource;
+	}
+
+	@Bean
+	public DataSourceScriptDatabaseInitializer replicaDataSourceScriptDatabaseInitializer(
+			@Qualifier("replicaDataSource") DataSource replica, Environment environment) {
+		SqlInitializationProperties properties = Binder.get(environment)
+			.bind("spring.sql.init", SqlInitializationProperties.class)
+			.orElseGet(SqlInitializationProperties::new);
+		DatabaseInitializationSettings settings = SqlDataSourceScriptDatabaseInitializer.getSettings(properties);
+		if (settings.getMode() != DatabaseInitializationMode.NEVER) {
+			settings.setMode(DatabaseInitializationMode.EMBEDDED);
+		}
+		return new DataSourceScriptDatabaseInitializer(replica, settings);
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link CacheInvalidationBus} sharing messages through the {@code cache_invalidations}
+ * table of the application database.
+ * <p>
+ * Messages are inserted with the {@link JdbcTemplate} of the application and so become
+ * part of the transaction making the change: they are visible to other nodes exactly when
+ * the change is, and never if it rolls back. Each node polls the table every
+ * {@code poll-interval} for rows with an id above those it has handled. As ids are
+ * assigned on insert but become visible on commit, a missing id may still show up; it is
+ * waited for up to {@code gap-timeout} before being skipped. Rows older than
+ * {@code retention} are deleted. A node starts from the latest row, as its caches are
+ * empty anyway.
+ * </p>
+ */
+public class JdbcCacheInvalidationBus implements CacheInvalidationBus, SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(JdbcCacheInvalidationBus.class);
+
+	private static final int BATCH_SIZE = 500;
+
+	private final JdbcTemplate jdbc;
+
+	private final Duration pollInterval;
+
+	private final Duration gapTimeout;
+
+	private final Duration retention;
+
+	private final List<Consumer<Message>> receivers = new CopyOnWriteArrayList<>();
+
+	// Only touched by the polling thread once started
+	private long cursor;
+
+	private final Set<Long> delivered = new HashSet<>();
+
+	private final Map<Long, Long> gaps = new HashMap<>();
+
+	private long lastPurge;
+
+	private volatile ScheduledExecutorService executor;
+
+	public JdbcCacheInvalidationBus(JdbcTemplate jdbc, Duration pollInterval, Duration gapTimeout, Duration retention) {
+		this.jdbc = jdbc;
+		this.pollInterval = pollInterval;
+		this.gapTimeout = gapTimeout;
+		this.retention = retention;
+	}
+
+	@Override
+	public void publish(Message message) {
+		this.jdbc.update(
+				"INSERT INTO cache_invalidations (origin, event_type, payload, created_at) VALUES (?, ?, ?, ?)",
+				message.origin(), message.type(), message.payload(), Timestamp.from(Instant.now()));
+	}
+
+	@Override
+	public void subscribe(Consumer<Message> receiver) {
+		this.receivers.add(receiver);
+	}
+
+	@Override
+	public void start() {
+		this.cursor = this.jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidations", Long.class);
+		this.lastPurge = System.nanoTime();
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "cache-invalidation");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = this.pollInterval.toMillis();
+		executor.scheduleWithFixedDelay(this::pollQuietly, interval, interval, TimeUnit.MILLISECONDS);
+		this.executor = executor;
+	}
+
+	@Override
+	public void stop() {
+		ScheduledExecutorService executor = this.executor;
+		this.executor = null;
+		if (executor != null) {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(this.pollInterval.toMillis() * 2, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.executor != null;
+	}
+
+	private void pollQuietly() {
+		try {
+			poll();
+		}
+		catch (RuntimeException ex) {
+			logger.warn("Failed to poll cache invalidations", ex);
+		}
+	}
+
+	/**
+	 * Deliver the messages committed since the last poll.
+	 */
+	void poll() {
+		List<Row> rows = this.jdbc.query(
+				"SELECT id, origin, event_type, payload FROM cache_invalidations WHERE id > ? ORDER BY id LIMIT ?",
+				(rs, rowNum) -> new Row(rs.getLong(1), new Message(rs.getString(2), rs.getString(3), rs.getString(4))),
+				this.cursor, BATCH_SIZE);
+		long now = System.nanoTime();
+		long previous = this.cursor;
+		for (Row row : rows) {
+			for (long id = previous + 1; id < row.id(); id++) {
+				if (!this.delivered.contains(id)) {
+					this.gaps.putIfAbsent(id, now);
+				}
+			}
+			previous = row.id();
+			if (this.delivered.add(row.id())) {
+				this.gaps.remove(row.id());
+				this.receivers.forEach(receiver -> receiver.accept(row.message()));
+			}
+		}
+		while (true) {
+			long next = this.cursor + 1;
+			Long missingSince = this.gaps.get(next);
+			if (this.delivered.remove(next)) {
+				this.cursor = next;
+			}
+			else if (missingSince != null && now - missingSince > this.gapTimeout.toNanos()) {
+				this.gaps.remove(next);
+				this.cursor = next;
+			}
+			else {
+				break;
+			}
+		}
+		if (now - this.lastPurge > this.pollInterval.toNanos() * 60) {
+			this.jdbc.update("DELETE FROM cache_invalidations WHERE created_at < ?",
+					Timestamp.from(Instant.now().minus(this.retention)));
+			this.lastPurge = now;
+		}
+	}
+
+	private record Row(long id, Message message) {
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link CacheInvalidationBus} connecting the application contexts running in the same
+ * JVM, e.g. several nodes started by a test.
+ * <p>
+ * Messages are handed to the other contexts once the publishing transaction commits and
+ * delivered there on a thread of their own, in the order they were published.
+ * </p>
+ */
+public class LocalCacheInvalidationBus implements CacheInvalidationBus, DisposableBean {
+
+	private static final Set<LocalCacheInvalidationBus> buses = ConcurrentHashMap.newKeySet();
+
+	private final List<Consumer<Message>> receivers = new CopyOnWriteArrayList<>();
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "cache-invalidation");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public LocalCacheInvalidationBus() {
+		buses.add(this);
+	}
+
+	@Override
+	public void publish(Message message) {
+		Runnable send = () -> buses.stream().filter(bus -> bus != this).forEach(bus -> bus.deliver(message));
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					send.run();
+				}
+			});
+		}
+		else {
+			send.run();
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<Message> receiver) {
+		this.receivers.add(receiver);
+	}
+
+	private void deliver(Message message) {
+		this.executor.execute(() -> this.receivers.forEach(receiver -> receiver.accept(message)));
+	}
+
+	@Override
+	public void destroy() {
+		buses.remove(this);
+		this.executor.shutdown();
+	}
+
+}
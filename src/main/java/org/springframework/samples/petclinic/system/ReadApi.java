@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * A part of the read-only JSON API served by the {@link ReadApiServer}.
+ */
+public interface ReadApi {
+
+	/**
+	 * Return the routes of this part of the API.
+	 */
+	RouterFunction<ServerResponse> routes();
+
+	/**
+	 * Return the media type to stream a collection as: newline delimited JSON if the
+	 * client asked for it, a JSON array otherwise.
+	 */
+	static MediaType collectionType(ServerRequest request) {
+		return request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)
+				? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * The R2DBC connections used by the read API.
+ * <p>
+ * The API reads the database of the application through its own pool of non-blocking
+ * connections. Unless {@code petclinic.read-api.url} is set, the R2DBC URL and
+ * credentials are derived from the JDBC ones, so it also reads the in-memory H2 database
+ * of the default configuration. The pool is deliberately not a {@code ConnectionFactory}
+ * bean: Spring Boot would otherwise initialize the database and manage transactions
+ * through R2DBC instead of JDBC and JPA. Pool usage is exported as the
+ * {@code r2dbc.pool.*} metrics, tagged with {@code name=readApi}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.read-api.enabled", havingValue = "true")
+public class ReadApiDatabase implements MeterBinder, DisposableBean {
+
+	private final ConnectionPool pool;
+
+	private final DatabaseClient client;
+
+	public ReadApiDatabase(DataSourceProperties dataSource, @Value("${petclinic.read-api.url:}") String url,
+			@Value("${petclinic.read-api.pool.max-size:20}") int maxSize,
+			@Value("${petclinic.read-api.pool.max-acquire-time:5s}") Duration maxAcquireTime) {
+		ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions
+			.parse(StringUtils.hasText(url) ? url : r2dbcUrl(dataSource.determineUrl()))
+			.mutate();
+		if (!StringUtils.hasText(url)) {
+			if (StringUtils.hasText(dataSource.determineUsername())) {
+				options.option(ConnectionFactoryOptions.USER, dataSource.determineUsername());
+			}
+			if (StringUtils.hasText(dataSource.determinePassword())) {
+				options.option(ConnectionFactoryOptions.PASSWORD, dataSource.determinePassword());
+			}
+		}
+		this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+			.name("readApi")
+			.maxSize(maxSize)
+			.maxAcquireTime(maxAcquireTime)
+			.build());
+		this.client = DatabaseClient.create(this.pool);
+	}
+
+	/**
+	 * Derive the R2DBC URL of a database from its JDBC URL.
+	 */
+	static String r2dbcUrl(String jdbcUrl) {
+		if (jdbcUrl.startsWith("jdbc:h2:mem:")) {
+			return "r2dbc:h2:mem:///" + jdbcUrl.substring("jdbc:h2:mem:".length());
+		}
+		if (jdbcUrl.startsWith("jdbc:mysql:") || jdbcUrl.startsWith("jdbc:postgresql:")) {
+			return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+		}
+		throw new IllegalStateException(
+				"Cannot derive an R2DBC URL from " + jdbcUrl + ", please set petclinic.read-api.url");
+	}
+
+	/**
+	 * Return the client to query the database with.
+	 */
+	public DatabaseClient client() {
+		return this.client;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		new ConnectionPoolMetrics(this.pool, "readApi", Tags.empty()).bindTo(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.pool.dispose();
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Serves the {@link ReadApi read-only JSON API} on its own port, next to the Spring MVC
+ * application.
+ * <p>
+ * Requests are handled by Reactor Netty on a few event loop threads, and results are
+ * streamed from the database as the client reads them, so slow clients hold neither a
+ * thread nor more rows than they have asked for. Collections are returned as JSON arrays,
+ * or as newline delimited JSON when the client accepts {@code application/x-ndjson}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.read-api.enabled", havingValue = "true")
+public class ReadApiServer implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(ReadApiServer.class);
+
+	private final HttpHandler handler;
+
+	private final String address;
+
+	private final int port;
+
+	private volatile DisposableServer server;
+
+	public ReadApiServer(List<ReadApi> apis, ObjectMapper objectMapper,
+			@Value("${petclinic.read-api.address:0.0.0.0}") String address,
+			@Value("${petclinic.read-api.port:8081}") int port) {
+		RouterFunction<ServerResponse> routes = apis.stream()
+			.map(ReadApi::routes)
+			.reduce(RouterFunction::and)
+			.orElseThrow(() -> new IllegalStateException("No read API routes"));
+		HandlerStrategies strategies = HandlerStrategies.builder()
+			.codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+			.build();
+		this.handler = RouterFunctions.toHttpHandler(routes, strategies);
+		this.address = address;
+		this.port = port;
+	}
+
+	@Override
+	public void start() {
+		this.server = HttpServer.create()
+			.host(this.address)
+			.port(this.port)
+			.handle(new ReactorHttpHandlerAdapter(this.handler))
+			.bindNow();
+		logger.info("Read API started on port " + this.server.port());
+	}
+
+	@Override
+	public void stop() {
+		DisposableServer server = this.server;
+		this.server = null;
+		if (server != null) {
+			server.disposeNow();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.server != null;
+	}
+
+	/**
+	 * Return the port the API is served on, once started.
+	 */
+	public int getPort() {
+		DisposableServer server = this.server;
+		return (server != null) ? server.port() : -1;
+	}
+
+}
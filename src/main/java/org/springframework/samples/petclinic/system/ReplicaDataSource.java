@@ -0,0 +1,222 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Connections for read-only transactions: from the replica while it is available and
+ * close enough to the primary, from the primary otherwise.
+ * <p>
+ * Reads go to the primary:
+ * <ul>
+ * <li>for {@code maxLag} after a transaction on {@link #writes()} committed in the same
+ * HTTP session, so a user reads what they just wrote even though the replica has not
+ * applied it yet, while the reads of other users stay on the replica;</li>
+ * <li>while handling a POST, PUT, PATCH or DELETE request, as its handler may load what
+ * it is about to change, and a stale version of it read from the replica would fail the
+ * optimistic lock check of the write;</li>
+ * <li>while the lag reported by {@code lagQuery} (in seconds, checked at most once per
+ * {@code lagCheckInterval} on a replica connection) is over {@code maxLag};</li>
+ * <li>for {@code retryInterval} after the replica failed to hand out a connection or to
+ * answer the lag query.</li>
+ * </ul>
+ * Only read-write transactions count as writes: statements run outside a transaction,
+ * like the polls of the {@link JdbcCacheInvalidationBus}, use the primary without sending
+ * any reads there.
+ */
+class ReplicaDataSource extends DelegatingDataSource {
+
+	private static final Log logger = LogFactory.getLog(ReplicaDataSource.class);
+
+	private static final String LAST_WRITE_ATTRIBUTE = ReplicaDataSource.class.getName() + ".LAST_WRITE";
+
+	private static final Set<String> CHANGING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+	private final DataSource primary;
+
+	private final long maxLag;
+
+	private final long retryInterval;
+
+	private final String lagQuery;
+
+	private final long lagCheckInterval;
+
+	private final DataSource writes;
+
+	private volatile long unavailableUntil;
+
+	private volatile long lastLagCheck;
+
+	private volatile boolean lagging;
+
+	ReplicaDataSource(DataSource primary, DataSource replica, Duration maxLag, Duration retryInterval, String lagQuery,
+			Duration lagCheckInterval) {
+		super(replica);
+		this.primary = primary;
+		this.maxLag = maxLag.toNanos();
+		this.retryInterval = retryInterval.toNanos();
+		this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : null;
+		this.lagCheckInterval = lagCheckInterval.toNanos();
+		long now = System.nanoTime();
+		this.unavailableUntil = now;
+		this.lastLagCheck = now - this.lagCheckInterval;
+		this.writes = new DelegatingDataSource(primary) {
+
+			@Override
+			public Connection getConnection() throws SQLException {
+				if (TransactionSynchronizationManager.isSynchronizationActive()
+						&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+					TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+						@Override
+						public void afterCommit() {
+							// the replica only starts applying the write once it is
+							// committed
+							wrote();
+						}
+
+					});
+				}
+				return super.getConnection();
+			}
+
+		};
+	}
+
+	/**
+	 * Return the primary, recording the commit of each read-write transaction using it as
+	 * a write of the current HTTP session. Transactions are only seen if they take their
+	 * connection once synchronization is active, so it is to be used behind a
+	 * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+	 */
+	DataSource writes() {
+		return this.writes;
+	}
+
+	/**
+	 * Whether reads of the current HTTP request currently go to the replica.
+	 */
+	boolean isReadingReplica() {
+		return !readsPrimary() && System.nanoTime() - this.unavailableUntil >= 0 && !this.lagging;
+	}
+
+	private void wrote() {
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		if (request != null) {
+			try {
+				// wall clock time, as sessions may outlive this JVM
+				request.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis(), RequestAttributes.SCOPE_SESSION);
+			}
+			catch (IllegalStateException ex) {
+				logger.debug("No session to record the write in, the response is already committed", ex);
+			}
+		}
+	}
+
+	private boolean readsPrimary() {
+		return changesData() || wroteRecently();
+	}
+
+	private static boolean changesData() {
+		return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request
+				&& CHANGING_METHODS.contains(request.getRequest().getMethod());
+	}
+
+	private boolean wroteRecently() {
+		RequestAttributes request = RequestContextHolder.getRequestAttributes();
+		Object lastWrite = (request != null)
+				? request.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_SESSION) : null;
+		return lastWrite instanceof Long millis
+				&& System.currentTimeMillis() - millis < TimeUnit.NANOSECONDS.toMillis(this.maxLag);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		long now = System.nanoTime();
+		if (now - this.unavailableUntil < 0 || readsPrimary()) {
+			return this.primary.getConnection();
+		}
+		boolean checkLag = this.lagQuery != null && now - this.lastLagCheck >= this.lagCheckInterval;
+		if (this.lagging && !checkLag) {
+			return this.primary.getConnection();
+		}
+		Connection connection = null;
+		try {
+			connection = obtainTargetDataSource().getConnection();
+			if (checkLag) {
+				this.lastLagCheck = now;
+				boolean lagging = lag(connection) * 1_000_000_000 > this.maxLag;
+				if (lagging != this.lagging) {
+					logger.info(lagging ? "Replica lags behind, reading from the primary"
+							: "Replica caught up, reading from the replica");
+					this.lagging = lagging;
+				}
+				if (lagging) {
+					connection.close();
+					return this.primary.getConnection();
+				}
+			}
+			return connection;
+		}
+		catch (SQLException ex) {
+			logger.warn("Replica unavailable, reading from the primary for the next "
+					+ Duration.ofNanos(this.retryInterval), ex);
+			this.unavailableUntil = now + this.retryInterval;
+			if (connection != null) {
+				try {
+					connection.close();
+				}
+				catch (SQLException closeEx) {
+					ex.addSuppressed(closeEx);
+				}
+			}
+			return this.primary.getConnection();
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new UnsupportedOperationException("Read-only connections use the credentials of the replica pool");
+	}
+
+	private double lag(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet result = statement.executeQuery(this.lagQuery)) {
+			return result.next() ? result.getDouble(1) : 0;
+		}
+	}
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the vet list and the first page of the vets table into their caches once the
+ * application is ready, so the first visitor does not pay for the queries.
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.cache.warm-up", havingValue = "true", matchIfMissing = true)
+class VetCacheWarmer {
+
+	private final VetRepository vets;
+
+	VetCacheWarmer(VetRepository vets) {
+		this.vets = vets;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	void warmUp() {
+		this.vets.findAll();
+		this.vets.findAll(PageRequest.of(0, VetController.PAGE_SIZE));
+	}
+
+}
@@ -18,13 +18,20 @@ package org.springframework.samples.petclinic.vet;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
 
 /**
  * @author Juergen Hoeller
@@ -35,18 +42,35 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Controller
 class VetController {
 
+	static final int PAGE_SIZE = 5;
+
+	private static final List<MediaType> RESOURCE_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_XML);
+
 	private final VetRepository vetRepository;
 
-	public VetController(VetRepository vetRepository) {
+	private final VetsResponseCache responseCache;
+
+	private final ContentNegotiationManager contentNegotiationManager;
+
+	private final VetDirectory vetDirectory;
+
+	public VetController(VetRepository vetRepository, VetsResponseCache responseCache,
+			ContentNegotiationManager contentNegotiationManager, VetDirectory vetDirectory) {
 		this.vetRepository = vetRepository;
+		this.vetDirectory = vetDirectory;
+		this.responseCache = responseCache;
+		this.contentNegotiationManager = contentNegotiationManager;
 	}
 
 	@GetMapping("/vets.html")
-	public String showVetList(@RequestParam(defaultValue = "1") int page, Model model) {
+	public String showVetList(@RequestParam(defaultValue = "1") int page,
+			@RequestParam(required = false) String specialty, Model model) {
 		// Here we are returning an object of type 'Vets' rather than a collection of Vet
 		// objects so it is simpler for Object-Xml mapping
 		Vets vets = new Vets();
-		Page<Vet> paginated = findPaginated(page);
+		Page<Vet> paginated = StringUtils.hasText(specialty) ? findPaginated(page, specialty) : findPaginated(page);
+		model.addAttribute("selectedSpecialty", specialty);
 		vets.getVetList().addAll(paginated.toList());
 		return addPaginationModel(page, paginated, model);
 	}
@@ -61,18 +85,40 @@ class VetController {
 	}
 
 	private Page<Vet> findPaginated(int page) {
-		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
+		Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE);
 		return vetRepository.findAll(pageable);
 	}
 
+	private Page<Vet> findPaginated(int page, String specialty) {
+		Pageable pageable = PageRequest.of(page - 1, PAGE_SIZE);
+		List<Vet> vets = this.vetDirectory.findBySpecialty(specialty);
+		int from = (int) Math.min(pageable.getOffset(), vets.size());
+		int to = Math.min(from + PAGE_SIZE, vets.size());
+		return new PageImpl<>(vets.subList(from, to), pageable, vets.size());
+	}
+
 	@GetMapping({ "/vets" })
-	public @ResponseBody Vets showResourcesVetList() {
-		// Here we are returning an object of type 'Vets' rather than a collection of Vet
-		// objects so it is simpler for JSon/Object mapping
-		Vets vets = new Vets();
-		vets.getVetList().addAll(this.vetRepository.findAll());
-		return vets;
+	public ResponseEntity<byte[]> showResourcesVetList(NativeWebRequest request)
+			throws HttpMediaTypeNotAcceptableException {
+		// The serialized vet list is cached per media type; a matching If-None-Match
+		// gets a 304 from the ETag without the body being written
+		VetsResponseCache.Representation vets = this.responseCache.get(negotiate(request));
+		return ResponseEntity.ok()
+			.contentType(vets.contentType())
+			.eTag(vets.etag())
+			.varyBy(HttpHeaders.ACCEPT)
+			.body(vets.body());
+	}
+
+	private MediaType negotiate(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+		for (MediaType accepted : this.contentNegotiationManager.resolveMediaTypes(request)) {
+			for (MediaType producible : RESOURCE_MEDIA_TYPES) {
+				if (accepted.isCompatibleWith(producible)) {
+					return producible;
+				}
+			}
+		}
+		throw new HttpMediaTypeNotAcceptableException(RESOURCE_MEDIA_TYPES);
 	}
 
 }
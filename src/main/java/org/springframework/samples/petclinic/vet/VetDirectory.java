@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Looks up vets by specialty name.
+ * <p>
+ * The lookup is built from the cached vet list the first time it is needed and kept until
+ * a {@link VetsChangedEvent} is committed, so filtering the vet directory by specialty
+ * neither queries nor sorts per request.
+ * </p>
+ */
+@Component
+public class VetDirectory {
+
+	private final VetRepository vets;
+
+	private volatile Map<String, List<Vet>> bySpecialty;
+
+	public VetDirectory(VetRepository vets) {
+		this.vets = vets;
+	}
+
+	/**
+	 * Return the vets having the given specialty, in the order of the vet list.
+	 */
+	public List<Vet> findBySpecialty(String specialty) {
+		return lookup().getOrDefault(specialty, List.of());
+	}
+
+	/**
+	 * Return the names of all specialties held by at least one vet, sorted by name.
+	 */
+	public Set<String> specialties() {
+		return lookup().keySet();
+	}
+
+	// runs after VetsResponseCache has evicted the vet caches the lookup is built from
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void onVetsChanged(VetsChangedEvent event) {
+		this.bySpecialty = null;
+	}
+
+	private Map<String, List<Vet>> lookup() {
+		Map<String, List<Vet>> lookup = this.bySpecialty;
+		if (lookup == null) {
+			Map<String, List<Vet>> built = new TreeMap<>();
+			for (Vet vet : this.vets.findAll()) {
+				for (Specialty specialty : vet.getSpecialties()) {
+					built.computeIfAbsent(specialty.getName(), name -> new ArrayList<>()).add(vet);
+				}
+			}
+			built.replaceAll((name, vets) -> List.copyOf(vets));
+			lookup = Collections.unmodifiableMap(built);
+			this.bySpecialty = lookup;
+		}
+		return lookup;
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.samples.petclinic.system.ReadApi;
+import org.springframework.samples.petclinic.system.ReadApiDatabase;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only JSON API for vets: {@code GET /api/vets} streams the vets, ordered by last
+ * name, each with the names of its specialties.
+ */
+@Component
+@ConditionalOnProperty(name = "petclinic.read-api.enabled", havingValue = "true")
+class VetReadApi implements ReadApi {
+
+	private static final String SELECT_VETS = """
+			SELECT v.id, v.first_name, v.last_name, s.name AS specialty
+			FROM vets v LEFT JOIN vet_specialties vs ON vs.vet_id = v.id LEFT JOIN specialties s ON s.id = vs.specialty_id
+			ORDER BY v.last_name, v.id, s.name""";
+
+	private final DatabaseClient db;
+
+	VetReadApi(ReadApiDatabase database) {
+		this.db = database.client();
+	}
+
+	@Override
+	public RouterFunction<ServerResponse> routes() {
+		return RouterFunctions.route().GET("/api/vets", this::vets).build();
+	}
+
+	private Mono<ServerResponse> vets(ServerRequest request) {
+		Flux<VetDetails> vets = this.db.sql(SELECT_VETS)
+			.map(row -> new VetRow(row.get("id", Integer.class), row.get("first_name", String.class),
+					row.get("last_name", String.class), row.get("specialty", String.class)))
+			.all()
+			.bufferUntilChanged(VetRow::id)
+			.map(rows -> new VetDetails(rows.get(0).id(), rows.get(0).firstName(), rows.get(0).lastName(),
+					rows.stream().map(VetRow::specialty).filter(Objects::nonNull).toList()));
+		return ServerResponse.ok().contentType(ReadApi.collectionType(request)).body(vets, VetDetails.class);
+	}
+
+	/**
+	 * A vet with the names of its specialties, sorted by name.
+	 */
+	public record VetDetails(Integer id, String firstName, String lastName, List<String> specialties) {
+	}
+
+	private record VetRow(Integer id, String firstName, String lastName, String specialty) {
+	}
+
+}
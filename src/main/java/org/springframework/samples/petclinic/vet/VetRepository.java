@@ -52,7 +52,24 @@ public interface VetRepository extends Repository<Vet, Integer> {
 	 * @throws DataAccessException
 	 */
 	@Transactional(readOnly = true)
-	@Cacheable("vets")
+	@Cacheable("vetPages")
 	Page<Vet> findAll(Pageable pageable) throws DataAccessException;
 
+	/**
+	 * Retrieve all <code>Vet</code>s from the data store, bypassing the cache. Used to
+	 * load and refresh the <code>vets</code> cache.
+	 * @return a <code>Collection</code> of <code>Vet</code>s
+	 */
+	@Transactional(readOnly = true)
+	Collection<Vet> findAllBy() throws DataAccessException;
+
+	/**
+	 * Retrieve a page of <code>Vet</code>s from the data store, bypassing the cache. Used
+	 * to load and refresh the <code>vetPages</code> cache.
+	 * @param pageable the page to load
+	 * @return a page of <code>Vet</code>s
+	 */
+	@Transactional(readOnly = true)
+	Page<Vet> findAllBy(Pageable pageable) throws DataAccessException;
+
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Holds the serialized {@link Vets} document per media type, together with a strong ETag
+ * computed from its bytes.
+ * <p>
+ * The vet list rarely changes but is polled constantly, so each representation is
+ * rendered once with the same message converters Spring MVC would use and then served as
+ * is. Everything is dropped, together with the vet caches it is rendered from, when a
+ * {@link VetsChangedEvent} is committed.
+ * </p>
+ */
+@Component
+public class VetsResponseCache {
+
+	private final VetRepository vets;
+
+	private final HttpMessageConverters converters;
+
+	private volatile Map<MediaType, Representation> representations = new ConcurrentHashMap<>();
+
+	public VetsResponseCache(VetRepository vets, HttpMessageConverters converters) {
+		this.vets = vets;
+		this.converters = converters;
+	}
+
+	/**
+	 * Return the vet list serialized as the given media type, rendering it on first use.
+	 */
+	public Representation get(MediaType mediaType) {
+		// Rendered outside of the map so other media types are not held up; a rendering
+		// that overlaps with a change goes to the map that was replaced
+		Map<MediaType, Representation> current = this.representations;
+		Representation representation = current.get(mediaType);
+		if (representation == null) {
+			representation = render(mediaType);
+			Representation existing = current.putIfAbsent(mediaType, representation);
+			if (existing != null) {
+				representation = existing;
+			}
+		}
+		return representation;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@CacheEvict(cacheNames = { "vets", "vetPages" }, allEntries = true, beforeInvocation = true)
+	public void onVetsChanged(VetsChangedEvent event) {
+		this.representations = new ConcurrentHashMap<>();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Representation render(MediaType mediaType) {
+		// Here we are returning an object of type 'Vets' rather than a collection of Vet
+		// objects so it is simpler for JSon/Object-Xml mapping
+		Vets document = new Vets();
+		document.getVetList().addAll(this.vets.findAll());
+		for (HttpMessageConverter<?> converter : this.converters) {
+			if (converter.canWrite(Vets.class, mediaType)) {
+				Buffer buffer = new Buffer();
+				try {
+					((HttpMessageConverter<Vets>) converter).write(document, mediaType, buffer);
+				}
+				catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+				byte[] body = buffer.body.toByteArray();
+				return new Representation(mediaType, body, etag(body));
+			}
+		}
+		throw new IllegalArgumentException("No converter can write vets as " + mediaType);
+	}
+
+	private static String etag(byte[] body) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+			return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * A serialized vet list.
+	 */
+	public record Representation(MediaType contentType, byte[] body, String etag) {
+	}
+
+	private static class Buffer implements HttpOutputMessage {
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		@Override
+		public OutputStream getBody() {
+			return this.body;
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+	}
+
+}
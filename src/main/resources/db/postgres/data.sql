@@ -51,3 +51,13 @@ INSERT INTO visits (pet_id, visit_date, description) SELECT 7, '2010-03-04', 'ra
 INSERT INTO visits (pet_id, visit_date, description) SELECT 8, '2011-03-04', 'rabies shot' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=2);
 INSERT INTO visits (pet_id, visit_date, description) SELECT 8, '2009-06-04', 'neutered' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=3);
 INSERT INTO visits (pet_id, visit_date, description) SELECT 7, '2008-09-04', 'spayed' WHERE NOT EXISTS (SELECT * FROM visits WHERE id=4);
+
+-- Move the id sequences past the existing rows; they only ever move forward, so blocks
+-- of ids already allocated by running instances stay unique
+SELECT setval('owners_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM owners), nextval('owners_seq')));
+SELECT setval('pets_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM pets), nextval('pets_seq')));
+SELECT setval('types_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM types), nextval('types_seq')));
+SELECT setval('visits_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM visits), nextval('visits_seq')));
+SELECT setval('vets_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM vets), nextval('vets_seq')));
+SELECT setval('specialties_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM specialties), nextval('specialties_seq')));
+SELECT setval('pet_attributes_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM pet_attributes), nextval('pet_attributes_seq')));
@@ -29,27 +29,34 @@ CREATE TABLE IF NOT EXISTS owners (
   last_name  TEXT,
   address    TEXT,
   city       TEXT,
-  telephone  TEXT
+  telephone  TEXT,
+  version    INT NOT NULL DEFAULT 0
 );
 CREATE INDEX ON owners (last_name);
+-- Databases created before owners, pets and visits were versioned lack the column
+ALTER TABLE owners ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
 
 CREATE TABLE IF NOT EXISTS pets (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   name       TEXT,
   birth_date DATE,
   type_id    INT NOT NULL REFERENCES types (id),
-  owner_id   INT REFERENCES owners (id)
+  owner_id   INT REFERENCES owners (id),
+  version    INT NOT NULL DEFAULT 0
 );
 CREATE INDEX ON pets (name);
 CREATE INDEX ON pets (owner_id);
+ALTER TABLE pets ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
 
 CREATE TABLE IF NOT EXISTS visits (
   id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
   pet_id      INT REFERENCES pets (id),
   visit_date  DATE,
-  description TEXT
+  description TEXT,
+  version     INT NOT NULL DEFAULT 0
 );
 CREATE INDEX ON visits (pet_id);
+ALTER TABLE visits ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
 
 CREATE TABLE IF NOT EXISTS pet_attributes (
   id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -57,4 +64,23 @@ CREATE TABLE IF NOT EXISTS pet_attributes (
   name TEXT NOT NULL,
   value TEXT
 );
-CREATE INDEX ON pet_attributes (pet_id);
+CREATE INDEX IF NOT EXISTS pet_attributes_pet_id ON pet_attributes (pet_id);
+CREATE INDEX IF NOT EXISTS pet_attributes_name_value ON pet_attributes (name, value);
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+  id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  origin     TEXT NOT NULL,
+  event_type TEXT NOT NULL,
+  payload    TEXT NOT NULL,
+  created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS cache_invalidations_created_at ON cache_invalidations (created_at);
+
+-- Entity ids, allocated by Hibernate 50 at a time
+CREATE SEQUENCE IF NOT EXISTS owners_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS pets_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS types_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS visits_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS vets_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS specialties_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS pet_attributes_seq INCREMENT BY 50;
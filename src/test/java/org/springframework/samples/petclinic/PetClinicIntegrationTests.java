@@ -25,12 +25,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
 public class PetClinicIntegrationTests {
 
@@ -43,12 +49,32 @@ public class PetClinicIntegrationTests {
 	@Autowired
 	private RestTemplateBuilder builder;
 
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Test
 	void testFindAll() {
 		vets.findAll();
 		vets.findAll(); // served from cache
 	}
 
+	@Test
+	void testVetCachesAreWarmedAndMetered() {
+		Cache vetsCache = cacheManager.getCache("vets");
+		Cache pagesCache = cacheManager.getCache("vetPages");
+		assertThat(vetsCache.get(SimpleKey.EMPTY)).isNotNull();
+		assertThat(pagesCache.get(PageRequest.of(0, 5))).isNotNull();
+
+		vets.findAll(PageRequest.of(1, 5));
+		assertThat(pagesCache.get(PageRequest.of(1, 5))).isNotNull();
+		assertThat(meterRegistry.find("cache.gets").tag("cache", "vetPages").tag("result", "miss").functionCounter())
+			.isNotNull();
+		assertThat(meterRegistry.find("cache.evictions").tag("cache", "vets").functionCounter()).isNotNull();
+	}
+
 	@Test
 	void testOwnerDetails() {
 		RestTemplate template = builder.rootUri("http://localhost:" + port).build();
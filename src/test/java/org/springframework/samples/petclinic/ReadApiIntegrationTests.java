@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
+import org.springframework.samples.petclinic.system.ReadApiServer;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = { "petclinic.read-api.enabled=true", "petclinic.read-api.port=0" })
+class ReadApiIntegrationTests {
+
+	@Autowired
+	private ReadApiServer server;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private WebTestClient client;
+
+	@BeforeEach
+	void setup() {
+		this.client = WebTestClient.bindToServer().baseUrl("http://localhost:" + this.server.getPort()).build();
+	}
+
+	@Test
+	void testVets() {
+		this.client.get()
+			.uri("/api/vets")
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.expectHeader()
+			.contentType(MediaType.APPLICATION_JSON)
+			.expectBody()
+			.jsonPath("$.length()")
+			.isEqualTo(6)
+			.jsonPath("$[0].lastName")
+			.isEqualTo("Carter")
+			.jsonPath("$[0].specialties.length()")
+			.isEqualTo(0)
+			.jsonPath("$[1].lastName")
+			.isEqualTo("Douglas")
+			.jsonPath("$[1].specialties")
+			.isEqualTo(List.of("dentistry", "surgery"));
+		assertThat(this.meterRegistry.find("r2dbc.pool.max.allocated").tag("name", "readApi").gauge()).isNotNull();
+	}
+
+	@Test
+	void testOwnersAsNdjson() {
+		List<OwnerSummary> owners = this.client.get()
+			.uri("/api/owners?lastName=Dav")
+			.accept(MediaType.APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.expectHeader()
+			.contentType(MediaType.APPLICATION_NDJSON)
+			.returnResult(OwnerSummary.class)
+			.getResponseBody()
+			.collectList()
+			.block();
+		assertThat(owners).extracting(OwnerSummary::lastName).containsExactly("Davis", "Davis");
+		this.client.get().uri("/api/owners?lastName=%25").exchange().expectBody().json("[]");
+	}
+
+	@Test
+	void testOwnerWithPetsAndVisits() {
+		this.client.get()
+			.uri("/api/owners/6")
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$.lastName")
+			.isEqualTo("Coleman")
+			.jsonPath("$.pets[0].name")
+			.isEqualTo("Max")
+			.jsonPath("$.pets[0].type")
+			.isEqualTo("cat")
+			.jsonPath("$.pets[0].visits[0].date")
+			.isEqualTo("2013-01-02")
+			.jsonPath("$.pets[0].visits[1].description")
+			.isEqualTo("neutered")
+			.jsonPath("$.pets[1].name")
+			.isEqualTo("Samantha");
+		this.client.get()
+			.uri("/api/owners/6/pets/7/visits")
+			.exchange()
+			.expectBody()
+			.jsonPath("$[*].description")
+			.isEqualTo(List.of("rabies shot", "spayed"));
+		this.client.get().uri("/api/owners/1/pets/7/visits").exchange().expectBody().json("[]");
+	}
+
+	@Test
+	void testOwnerNotFound() {
+		this.client.get().uri("/api/owners/999").exchange().expectStatus().isNotFound();
+		this.client.get().uri("/api/owners/abc").exchange().expectStatus().isNotFound();
+	}
+
+}
@@ -17,13 +17,19 @@
 package org.springframework.samples.petclinic.owner;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -31,8 +37,10 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItem;
@@ -41,9 +49,13 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -91,10 +103,12 @@ class OwnerControllerTests {
 	void setup() {
 
 		Owner george = george();
-		given(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class)))
-			.willReturn(new PageImpl<>(List.of(george)));
+		given(this.owners.findIdsByLastNameStartingWith(eq("Franklin"), any(Pageable.class)))
+			.willReturn(new PageImpl<>(List.of(TEST_OWNER_ID)));
 
 		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(george));
+		given(this.owners.findWithPetsAndVisitsById(TEST_OWNER_ID)).willReturn(Optional.of(george));
+		given(this.owners.findWithPetsByIdIn(anyCollection())).willReturn(List.of(george));
 		Visit visit = new Visit();
 		visit.setDate(LocalDate.now());
 		george.getPet("Max").getVisits().add(visit);
@@ -141,15 +155,18 @@ class OwnerControllerTests {
 
 	@Test
 	void testProcessFindFormSuccess() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of(george(), new Owner()));
-		when(this.owners.findByLastNameStartingWith(anyString(), any(Pageable.class))).thenReturn(tasks);
-		mockMvc.perform(get("/owners?page=1")).andExpect(status().isOk()).andExpect(view().name("owners/ownersList"));
+		Page<Integer> tasks = new PageImpl<>(List.of(TEST_OWNER_ID, 2));
+		when(this.owners.findIdsByLastNameStartingWith(anyString(), any(Pageable.class))).thenReturn(tasks);
+		mockMvc.perform(get("/owners?page=1"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", hasItem(hasProperty("pets", not(empty())))))
+			.andExpect(view().name("owners/ownersList"));
 	}
 
 	@Test
 	void testProcessFindFormByLastName() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of(george()));
-		when(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class))).thenReturn(tasks);
+		Page<Integer> tasks = new PageImpl<>(List.of(TEST_OWNER_ID));
+		when(this.owners.findIdsByLastNameStartingWith(eq("Franklin"), any(Pageable.class))).thenReturn(tasks);
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Franklin"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
@@ -157,8 +174,8 @@ class OwnerControllerTests {
 
 	@Test
 	void testProcessFindFormNoOwnersFound() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of());
-		when(this.owners.findByLastNameStartingWith(eq("Unknown Surname"), any(Pageable.class))).thenReturn(tasks);
+		Page<Integer> tasks = new PageImpl<>(List.of());
+		when(this.owners.findIdsByLastNameStartingWith(eq("Unknown Surname"), any(Pageable.class))).thenReturn(tasks);
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Unknown Surname"))
 			.andExpect(status().isOk())
 			.andExpect(model().attributeHasFieldErrors("owner", "lastName"))
@@ -167,6 +184,71 @@ class OwnerControllerTests {
 
 	}
 
+	@Nested
+	@TestPropertySource(properties = "petclinic.owners.keyset-pagination=true")
+	class KeysetPagination {
+
+		// the enclosing instance is wired from the default context, so use this one's
+		@Autowired
+		private MockMvc mockMvc;
+
+		@Autowired
+		private OwnerRepository owners;
+
+		@BeforeEach
+		void setup() {
+			given(this.owners.findWithPetsByIdIn(anyCollection())).willReturn(List.of(george()));
+		}
+
+		@Test
+		void testProcessFindFormFirstWindow() throws Exception {
+			Window<OwnerLastName> window = Window.from(
+					List.of(new OwnerLastName(TEST_OWNER_ID, "Franklin"),
+							new OwnerLastName(TEST_OWNER_ID + 1, "Franklin")),
+					i -> ScrollPosition.forward(Map.of("lastName", "Franklin", "id", TEST_OWNER_ID + i)), true);
+			given(owners.findLastNamesByLastNameStartingWith(eq(""), eq(ScrollPosition.keyset()), any(Limit.class),
+					any(Sort.class)))
+				.willReturn(window);
+
+			mockMvc.perform(get("/owners"))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeDoesNotExist("totalPages"))
+				.andExpect(model().attribute("nextLastName", "Franklin"))
+				.andExpect(model().attribute("nextId", TEST_OWNER_ID + 1))
+				.andExpect(view().name("owners/ownersList"));
+			verify(owners, never()).findIdsByLastNameStartingWith(anyString(), any(Pageable.class));
+		}
+
+		@Test
+		void testProcessFindFormNextWindow() throws Exception {
+			given(owners.findLastNamesByLastNameStartingWith(eq(""), any(ScrollPosition.class), any(Limit.class),
+					any(Sort.class)))
+				.willReturn(Window.from(List.of(new OwnerLastName(TEST_OWNER_ID, "Franklin")),
+						i -> ScrollPosition.keyset(), false));
+
+			mockMvc.perform(get("/owners").param("afterLastName", "Davis").param("afterId", "4"))
+				.andExpect(status().isOk())
+				.andExpect(model().attributeDoesNotExist("nextId"))
+				.andExpect(view().name("owners/ownersList"));
+			verify(owners).findLastNamesByLastNameStartingWith(eq(""),
+					eq(ScrollPosition.forward(Map.of("lastName", "Davis", "id", 4))), any(Limit.class),
+					any(Sort.class));
+		}
+
+		@Test
+		void testProcessFindFormSingleOwner() throws Exception {
+			given(owners.findLastNamesByLastNameStartingWith(eq("Franklin"), any(ScrollPosition.class),
+					any(Limit.class), any(Sort.class)))
+				.willReturn(Window.from(List.of(new OwnerLastName(TEST_OWNER_ID, "Franklin")),
+						i -> ScrollPosition.keyset(), false));
+
+			mockMvc.perform(get("/owners").param("lastName", "Franklin"))
+				.andExpect(status().is3xxRedirection())
+				.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
+		}
+
+	}
+
 	@Test
 	void testInitUpdateOwnerForm() throws Exception {
 		mockMvc.perform(get("/owners/{ownerId}/edit", TEST_OWNER_ID))
@@ -228,6 +310,37 @@ class OwnerControllerTests {
 			.andExpect(view().name("owners/ownerDetails"));
 	}
 
+	@Test
+	void testShowOwnerNotModified() throws Exception {
+		given(this.owners.findVersionById(TEST_OWNER_ID)).willReturn(Optional.of(3));
+
+		String etag = mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Cache-Control", "no-cache"))
+			.andReturn()
+			.getResponse()
+			.getHeader("ETag");
+		assertThat(etag).contains("-3-");
+
+		mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID).header("If-None-Match", etag))
+			.andExpect(status().isNotModified());
+		verify(this.owners, times(1)).findWithPetsAndVisitsById(TEST_OWNER_ID);
+	}
+
+	@Test
+	void testShowOwnerModifiedAfterVersionChange() throws Exception {
+		given(this.owners.findVersionById(TEST_OWNER_ID)).willReturn(Optional.of(3), Optional.of(4));
+
+		String etag = mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID))
+			.andReturn()
+			.getResponse()
+			.getHeader("ETag");
+
+		mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID).header("If-None-Match", etag))
+			.andExpect(status().isOk())
+			.andExpect(view().name("owners/ownerDetails"));
+	}
+
 	@Test
 	public void testProcessUpdateOwnerFormWithIdMismatch() throws Exception {
 		int pathOwnerId = 1;
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Test class for {@link OwnerLastNameIndex}
+ */
+@ExtendWith(MockitoExtension.class)
+class OwnerLastNameIndexTests {
+
+	@Mock
+	private OwnerRepository owners;
+
+	private OwnerLastNameIndex index;
+
+	@BeforeEach
+	void setup() {
+		given(this.owners.findAllLastNames()).willReturn(List.of(new OwnerLastName(1, "Franklin"),
+				new OwnerLastName(2, "Davis"), new OwnerLastName(4, "Davis"), new OwnerLastName(6, "Coleman")));
+		this.index = new OwnerLastNameIndex(this.owners);
+		this.index.afterSingletonsInstantiated();
+	}
+
+	@Test
+	void shouldFindIdsByPrefixIgnoringCase() {
+		Page<Integer> ids = this.index.findIds("da", PageRequest.of(0, 5));
+		assertThat(ids.getContent()).containsExactly(2, 4);
+		assertThat(ids.getTotalElements()).isEqualTo(2);
+
+		assertThat(this.index.findIds("Davis", PageRequest.of(0, 5)).getContent()).containsExactly(2, 4);
+		assertThat(this.index.findIds("Daviss", PageRequest.of(0, 5))).isEmpty();
+	}
+
+	@Test
+	void shouldPageThroughAllOwners() {
+		Page<Integer> first = this.index.findIds("", PageRequest.of(0, 3));
+		assertThat(first.getContent()).containsExactly(6, 2, 4);
+		assertThat(first.getTotalElements()).isEqualTo(4);
+
+		Page<Integer> second = this.index.findIds("", PageRequest.of(1, 3));
+		assertThat(second.getContent()).containsExactly(1);
+	}
+
+	@Test
+	void shouldTrackSavedOwners() {
+		this.index.onOwnerSaved(new OwnerSavedEvent(11, "Joe", "Dawson", "6085551111"));
+		this.index.onOwnerSaved(new OwnerSavedEvent(1, "George", "Daniels", "6085551023"));
+
+		assertThat(this.index.findIds("da", PageRequest.of(0, 5)).getContent()).containsExactly(1, 2, 4, 11);
+		assertThat(this.index.findIds("franklin", PageRequest.of(0, 5))).isEmpty();
+		assertThat(this.index.size()).isEqualTo(5);
+		assertThat(this.index.estimatedMemoryBytes()).isPositive();
+	}
+
+	@Test
+	void shouldMatchSortedOwnersAfterManyUpdates() {
+		Random random = new Random(42);
+		List<OwnerLastName> expected = new ArrayList<>(List.of(new OwnerLastName(1, "franklin"),
+				new OwnerLastName(2, "davis"), new OwnerLastName(4, "davis"), new OwnerLastName(6, "coleman")));
+		for (int i = 0; i < 2000; i++) {
+			int id = random.nextInt(500);
+			String lastName = "name" + random.nextInt(50);
+			expected.removeIf(owner -> owner.id() == id);
+			expected.add(new OwnerLastName(id, lastName));
+			this.index.update(id, lastName);
+		}
+		expected.sort(Comparator.comparing(OwnerLastName::lastName).thenComparing(OwnerLastName::id));
+
+		Page<Integer> all = this.index.findIds("", PageRequest.of(0, expected.size()));
+		assertThat(all.getContent()).containsExactlyElementsOf(expected.stream().map(OwnerLastName::id).toList());
+		assertThat(this.index.findIds("name1", PageRequest.of(0, 1000)).getTotalElements())
+			.isEqualTo(expected.stream().filter(owner -> owner.lastName().startsWith("name1")).count());
+		assertThat(this.index.size()).isEqualTo(expected.size());
+
+		given(this.owners.findAllLastNames()).willReturn(expected);
+		OwnerLastNameIndex rebuilt = new OwnerLastNameIndex(this.owners);
+		rebuilt.afterSingletonsInstantiated();
+		assertThat(this.index.estimatedMemoryBytes()).isEqualTo(rebuilt.estimatedMemoryBytes());
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Test class for {@link OwnerSearchCache}
+ */
+class OwnerSearchCacheTests {
+
+	private final OwnerSearchCache cache = new OwnerSearchCache(100);
+
+	private final AtomicInteger searches = new AtomicInteger();
+
+	private final Function<Pageable, Page<Integer>> search = pageable -> {
+		this.searches.incrementAndGet();
+		return new PageImpl<>(List.of(2, 4), pageable, 7);
+	};
+
+	@Test
+	void shouldServeRepeatedSearchesFromCache() {
+		this.cache.findIds("Dav", PageRequest.of(0, 5), this.search);
+		Page<Integer> ids = this.cache.findIds("Dav", PageRequest.of(0, 5), this.search);
+
+		assertThat(ids.getContent()).containsExactly(2, 4);
+		assertThat(ids.getTotalElements()).isEqualTo(7);
+		assertThat(this.searches).hasValue(1);
+
+		this.cache.findIds("Dav", PageRequest.of(1, 5), this.search);
+		this.cache.findIds("dav", PageRequest.of(0, 5), this.search);
+		assertThat(this.searches).hasValue(3);
+	}
+
+	@Test
+	void shouldDropPrefixesMatchingSavedOwner() {
+		this.cache.findIds("", PageRequest.of(0, 5), this.search);
+		this.cache.findIds("dav", PageRequest.of(0, 5), this.search);
+		this.cache.findIds("Fra", PageRequest.of(0, 5), this.search);
+
+		this.cache.onOwnerSaved(new OwnerSavedEvent(11, "Jane", "Davenport", "6085551234"));
+
+		assertThat(this.cache.size()).isEqualTo(1);
+		this.cache.findIds("Fra", PageRequest.of(0, 5), this.search);
+		assertThat(this.searches).hasValue(3);
+	}
+
+	@Test
+	void shouldDropPrefixesMatchingPreviousLastNameOfRenamedOwner() {
+		this.cache.findIds("Fra", PageRequest.of(0, 5), this.search);
+		this.cache.findIds("Dav", PageRequest.of(0, 5), this.search);
+
+		this.cache.onOwnerRenamed(new OwnerRenamedEvent(1, "Franklin", "Davenport"));
+
+		assertThat(this.cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldDropPrefixesMatchingImportedOwners() {
+		this.cache.findIds("dav", PageRequest.of(0, 5), this.search);
+		this.cache.findIds("Fra", PageRequest.of(0, 5), this.search);
+		this.cache.findIds("Col", PageRequest.of(0, 5), this.search);
+		this.cache.findIds("Cola", PageRequest.of(0, 5), this.search);
+
+		this.cache.onOwnersImported(new OwnersImportedEvent(List.of(new OwnerSummary(11, "Jane", "Davenport", null),
+				new OwnerSummary(12, "Joe", "Coleman", null), new OwnerSummary(13, "Jim", "Carter", null)), List.of()));
+
+		assertThat(this.cache.size()).isEqualTo(2);
+		this.cache.findIds("Fra", PageRequest.of(0, 5), this.search);
+		this.cache.findIds("Cola", PageRequest.of(0, 5), this.search);
+		assertThat(this.searches).hasValue(4);
+	}
+
+	@Test
+	void shouldNotCacheSearchOverlappingInvalidation() {
+		this.cache.findIds("Dav", PageRequest.of(0, 5), pageable -> {
+			this.cache.invalidate("Coleman");
+			return this.search.apply(pageable);
+		});
+
+		assertThat(this.cache.size()).isZero();
+	}
+
+}
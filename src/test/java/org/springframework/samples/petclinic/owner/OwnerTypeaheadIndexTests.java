@@ -0,0 +1,86 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Test class for {@link OwnerTypeaheadIndex}
+ */
+@ExtendWith(MockitoExtension.class)
+class OwnerTypeaheadIndexTests {
+
+	@Mock
+	private OwnerRepository owners;
+
+	private OwnerTypeaheadIndex index;
+
+	@BeforeEach
+	void setup() {
+		given(this.owners.findSummaries(any(Pageable.class)))
+			.willReturn(List.of(new OwnerSummary(1, "George", "Franklin", "6085551023"),
+					new OwnerSummary(2, "Betty", "Davis", "6085551749"),
+					new OwnerSummary(3, "Davina", "Black", "6085555387"),
+					new OwnerSummary(4, "Harold", "Davis", "6085553198")));
+		this.index = new OwnerTypeaheadIndex(this.owners, 4, 3);
+		this.index.afterSingletonsInstantiated();
+	}
+
+	@Test
+	void shouldRankLastNameMatchesFirst() {
+		assertThat(this.index.search("dav", 10)).extracting(OwnerSummary::id).containsExactly(2, 4, 3);
+	}
+
+	@Test
+	void shouldMatchTelephoneDigits() {
+		assertThat(this.index.search("608-555-17", 10)).extracting(OwnerSummary::id).containsExactly(2);
+	}
+
+	@Test
+	void shouldLimitSuggestions() {
+		assertThat(this.index.search("dav", 1)).extracting(OwnerSummary::id).containsExactly(2);
+		assertThat(this.index.search("6085", 10)).hasSize(3);
+		assertThat(this.index.search(" ", 10)).isEmpty();
+	}
+
+	@Test
+	void shouldTrackSavedOwnersWithinBounds() {
+		this.index.onOwnerSaved(new OwnerSavedEvent(2, "Betty", "Davenport", "6085551749"));
+		assertThat(this.index.search("dave", 10)).extracting(OwnerSummary::id).containsExactly(2);
+		assertThat(this.index.size()).isEqualTo(4);
+
+		this.index.onOwnerSaved(new OwnerSavedEvent(5, "Jean", "Coleman", "6085552654"));
+		this.index.onOwnerSaved(new OwnerSavedEvent(6, "Jeff", "Black", "6085555487"));
+
+		assertThat(this.index.search("coleman", 10)).extracting(OwnerSummary::id).containsExactly(5);
+		assertThat(this.index.search("bla", 10)).extracting(OwnerSummary::id).containsExactly(3, 6);
+		assertThat(this.index.search("franklin", 10)).isEmpty();
+		assertThat(this.index.search("dave", 10)).isEmpty();
+		assertThat(this.index.size()).isEqualTo(4);
+	}
+
+}
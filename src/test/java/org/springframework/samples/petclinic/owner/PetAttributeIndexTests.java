@@ -0,0 +1,76 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Test class for {@link PetAttributeIndex}
+ */
+@ExtendWith(MockitoExtension.class)
+class PetAttributeIndexTests {
+
+	private static final Set<String> NAMES = Set.of("microchip", "allergy");
+
+	@Mock
+	private PetAttributeRepository attributes;
+
+	private PetAttributeIndex index;
+
+	@BeforeEach
+	void setup() {
+		given(this.attributes.findValuesByNameIn(NAMES))
+			.willReturn(List.of(new PetAttributeValue(1, "microchip", "985112003456789"),
+					new PetAttributeValue(1, "allergy", "Penicillin"), new PetAttributeValue(2, "allergy", "pollen")));
+		this.index = new PetAttributeIndex(this.attributes, NAMES);
+		this.index.afterSingletonsInstantiated();
+	}
+
+	@Test
+	void shouldFindPetsByValue() {
+		assertThat(this.index.covers("microchip")).isTrue();
+		assertThat(this.index.covers("color")).isFalse();
+		assertThat(this.index.findPetIds("microchip", "985112003456789")).containsExactly(1);
+		assertThat(this.index.findPetIds("microchip", "0")).isEmpty();
+		assertThat(this.index.findPetIdsContaining("allergy", "PENI")).containsExactly(1);
+		assertThat(this.index.findPetIdsContaining("allergy", "l")).containsExactlyInAnyOrder(1, 2);
+		assertThat(this.index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldRefreshPetsWithChangedAttributes() {
+		given(this.attributes.findValuesByPetIdInAndNameIn(List.of(1), NAMES))
+			.willReturn(List.of(new PetAttributeValue(1, "microchip", "985112000000001")));
+
+		this.index.onPetAttributesChanged(new PetAttributesChangedEvent(List.of(1)));
+
+		assertThat(this.index.findPetIds("microchip", "985112003456789")).isEmpty();
+		assertThat(this.index.findPetIds("microchip", "985112000000001")).containsExactly(1);
+		assertThat(this.index.findPetIdsContaining("allergy", "l")).containsExactly(2);
+		assertThat(this.index.size()).isEqualTo(2);
+	}
+
+}
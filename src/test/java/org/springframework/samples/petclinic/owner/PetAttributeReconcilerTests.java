@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link PetAttributeReconciler}
+ */
+class PetAttributeReconcilerTests {
+
+	private final PetAttributeReconciler reconciler = new PetAttributeReconciler();
+
+	@Test
+	void shouldOnlyReturnChangedAttributes() {
+		List<PetAttribute> stored = List.of(attribute(1, "color", "black"), attribute(2, "weight", "4kg"),
+				attribute(3, "allergy", "pollen"));
+		List<PetAttribute> submitted = List.of(attribute(1, "color", "black"), attribute(2, "weight", "5kg"),
+				attribute(null, "microchip", "985112003456789"), attribute(null, " ", "ignored"));
+
+		PetAttributeChanges changes = this.reconciler.reconcile(7, stored, submitted);
+
+		assertThat(changes.petId()).isEqualTo(7);
+		assertThat(changes.upserts()).extracting(PetAttribute::getId, PetAttribute::getName)
+			.containsExactly(tuple(2, "weight"), tuple(null, "microchip"));
+		assertThat(changes.deletions()).containsExactly(3);
+	}
+
+	@Test
+	void shouldInsertAttributesWithUnknownIds() {
+		PetAttributeChanges changes = this.reconciler.reconcile(7, List.of(attribute(1, "color", "black")),
+				List.of(attribute(1, "color", "black"), attribute(1, "color", "white"), attribute(99, "size", "big")));
+
+		assertThat(changes.upserts()).extracting(PetAttribute::getId, PetAttribute::getName)
+			.containsExactly(tuple(null, "size"));
+		assertThat(changes.deletions()).isEmpty();
+	}
+
+	private static PetAttribute attribute(Integer id, String name, String value) {
+		PetAttribute attribute = new PetAttribute();
+		attribute.setId(id);
+		attribute.setName(name);
+		attribute.setValue(value);
+		return attribute;
+	}
+
+}
@@ -20,11 +20,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
-import org.springframework.samples.petclinic.owner.PetTypeRepository;
 import org.springframework.samples.petclinic.owner.OwnerRepository;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -34,9 +34,15 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
@@ -48,7 +54,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @author Wick Dynex
  */
 @WebMvcTest(value = PetController.class,
-		includeFilters = @ComponentScan.Filter(value = PetTypeFormatter.class, type = FilterType.ASSIGNABLE_TYPE))
+		includeFilters = @ComponentScan.Filter(value = { PetTypeFormatter.class, OwnerLoader.class },
+				type = FilterType.ASSIGNABLE_TYPE))
 @DisabledInNativeImage
 @DisabledInAotMode
 class PetControllerTests {
@@ -64,14 +71,18 @@ class PetControllerTests {
 	private OwnerRepository owners;
 
 	@MockitoBean
-	private PetTypeRepository types;
+	private PetTypeRegistry types;
+
+	@MockitoBean
+	private PetService petService;
 
 	@BeforeEach
 	void setup() {
 		PetType cat = new PetType();
 		cat.setId(3);
 		cat.setName("hamster");
-		given(this.types.findPetTypes()).willReturn(List.of(cat));
+		given(this.types.findAll()).willReturn(List.of(cat));
+		given(this.types.findByName("hamster")).willReturn(Optional.of(cat));
 
 		Owner owner = new Owner();
 		Pet pet = new Pet();
@@ -82,7 +93,8 @@ class PetControllerTests {
 		dog.setId(TEST_PET_ID + 1);
 		pet.setName("petty");
 		dog.setName("doggy");
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithPetsAndAttributesById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
 	}
 
 	@Test
@@ -101,6 +113,7 @@ class PetControllerTests {
 				.param("birthDate", "2015-02-12"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
+		then(petService).should().addPet(any(Owner.class), any(Pet.class));
 	}
 
 	@Nested
@@ -110,11 +123,14 @@ class PetControllerTests {
 		void testProcessCreationFormWithBlankName() throws Exception {
 			mockMvc
 				.perform(post("/owners/{ownerId}/pets/new", TEST_OWNER_ID).param("name", "\t \n")
-					.param("birthDate", "2015-02-12"))
+					.param("birthDate", "2015-02-12")
+					.param("attributes[0].name", "microchip")
+					.param("attributes[0].value", "985112003456789"))
 				.andExpect(model().attributeHasNoErrors("owner"))
 				.andExpect(model().attributeHasErrors("pet"))
 				.andExpect(model().attributeHasFieldErrors("pet", "name"))
 				.andExpect(model().attributeHasFieldErrorCode("pet", "name", "required"))
+				.andExpect(content().string(containsString("value=\"985112003456789\"")))
 				.andExpect(status().isOk())
 				.andExpect(view().name("pets/createOrUpdatePetForm"));
 		}
@@ -167,6 +183,8 @@ class PetControllerTests {
 				.andExpect(status().isOk())
 				.andExpect(model().attributeExists("pet"))
 				.andExpect(view().name("pets/createOrUpdatePetForm"));
+
+			then(owners).should(times(1)).findWithPetsAndAttributesById(TEST_OWNER_ID);
 		}
 
 	}
@@ -181,6 +199,39 @@ class PetControllerTests {
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
 	}
 
+	@Test
+	void testProcessUpdateFormAppliesAttributeChanges() throws Exception {
+		PetAttribute color = new PetAttribute();
+		color.setId(7);
+		color.setName("color");
+		PetAttribute weight = new PetAttribute();
+		weight.setId(8);
+		weight.setName("weight");
+		Pet pet = this.owners.findWithPetsAndAttributesById(TEST_OWNER_ID).orElseThrow().getPet(TEST_PET_ID);
+		pet.addAttribute(color);
+		pet.addAttribute(weight);
+
+		mockMvc
+			.perform(post("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID).param("name", "Betty")
+				.param("type", "hamster")
+				.param("birthDate", "2015-02-12")
+				.param("attributes[0].id", "7")
+				.param("attributes[0].name", "color")
+				.param("attributes[0].value", "brown")
+				.param("attributes[1].name", "microchip")
+				.param("attributes[1].value", "985112003456789")
+				.param("attributes[2].name", ""))
+			.andExpect(status().is3xxRedirection());
+
+		ArgumentCaptor<PetAttributeChanges> changes = ArgumentCaptor.forClass(PetAttributeChanges.class);
+		then(petService).should().savePet(any(Owner.class), changes.capture());
+		assertThat(changes.getValue().petId()).isEqualTo(TEST_PET_ID);
+		assertThat(changes.getValue().upserts()).extracting(PetAttribute::getName)
+			.containsExactly("color", "microchip");
+		assertThat(changes.getValue().deletions()).containsExactly(8);
+		assertThat(color.getValue()).isNull();
+	}
+
 	@Nested
 	class ProcessUpdateFormHasErrors {
 
@@ -200,11 +251,14 @@ class PetControllerTests {
 		void testProcessUpdateFormWithBlankName() throws Exception {
 			mockMvc
 				.perform(post("/owners/{ownerId}/pets/{petId}/edit", TEST_OWNER_ID, TEST_PET_ID).param("name", "  ")
-					.param("birthDate", "2015-02-12"))
+					.param("birthDate", "2015-02-12")
+					.param("attributes[0].name", "color")
+					.param("attributes[0].value", "brown"))
 				.andExpect(model().attributeHasNoErrors("owner"))
 				.andExpect(model().attributeHasErrors("pet"))
 				.andExpect(model().attributeHasFieldErrors("pet", "name"))
 				.andExpect(model().attributeHasFieldErrorCode("pet", "name", "required"))
+				.andExpect(content().string(containsString("value=\"brown\"")))
 				.andExpect(view().name("pets/createOrUpdatePetForm"));
 		}
 
@@ -18,6 +18,8 @@ package org.springframework.samples.petclinic.owner;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
 
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -49,7 +51,7 @@ class PetTypeFormatterTests {
 
 	@BeforeEach
 	void setup() {
-		this.petTypeFormatter = new PetTypeFormatter(types);
+		this.petTypeFormatter = new PetTypeFormatter(new PetTypeRegistry(types));
 	}
 
 	@Test
@@ -63,6 +65,7 @@ class PetTypeFormatterTests {
 	@Test
 	void shouldParse() throws ParseException {
 		given(types.findPetTypes()).willReturn(makePetTypes());
+		this.petTypeFormatter = new PetTypeFormatter(loadedRegistry());
 		PetType petType = petTypeFormatter.parse("Bird", Locale.ENGLISH);
 		assertThat(petType.getName()).isEqualTo("Bird");
 	}
@@ -70,11 +73,27 @@ class PetTypeFormatterTests {
 	@Test
 	void shouldThrowParseException() {
 		given(types.findPetTypes()).willReturn(makePetTypes());
+		this.petTypeFormatter = new PetTypeFormatter(loadedRegistry());
 		Assertions.assertThrows(ParseException.class, () -> {
 			petTypeFormatter.parse("Fish", Locale.ENGLISH);
 		});
 	}
 
+	@Test
+	void shouldParseWithoutQueryingAgain() throws ParseException {
+		given(types.findPetTypes()).willReturn(makePetTypes());
+		this.petTypeFormatter = new PetTypeFormatter(loadedRegistry());
+		petTypeFormatter.parse("Bird", Locale.ENGLISH);
+		petTypeFormatter.parse("Dog", Locale.ENGLISH);
+		then(types).should(times(1)).findPetTypes();
+	}
+
+	private PetTypeRegistry loadedRegistry() {
+		PetTypeRegistry registry = new PetTypeRegistry(types);
+		registry.afterSingletonsInstantiated();
+		return registry;
+	}
+
 	/**
 	 * Helper method to produce some sample pet types just for test purpose
 	 * @return {@link Collection} of {@link PetType}
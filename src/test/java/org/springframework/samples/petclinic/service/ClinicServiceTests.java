@@ -17,28 +17,77 @@
 package org.springframework.samples.petclinic.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.owner.EntityIds;
+import org.springframework.samples.petclinic.owner.ImportRecordReader;
 import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerExportService;
+import org.springframework.samples.petclinic.owner.OwnerImportReport;
+import org.springframework.samples.petclinic.owner.OwnerImportService;
+import org.springframework.samples.petclinic.owner.OwnerLastName;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
+import org.springframework.samples.petclinic.owner.OwnersImportedEvent;
 import org.springframework.samples.petclinic.owner.OwnerRepository;
 import org.springframework.samples.petclinic.owner.PetTypeRepository;
 import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.PetAttribute;
+import org.springframework.samples.petclinic.owner.PetAttributeChanges;
+import org.springframework.samples.petclinic.owner.PetAttributeIndex;
+import org.springframework.samples.petclinic.owner.PetAttributeRepository;
+import org.springframework.samples.petclinic.owner.PetService;
+import org.springframework.samples.petclinic.owner.PetRepository;
 import org.springframework.samples.petclinic.owner.PetType;
 import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.owner.VisitRepository;
+import org.springframework.samples.petclinic.owner.VisitService;
+import org.springframework.samples.petclinic.vet.Specialty;
 import org.springframework.samples.petclinic.vet.Vet;
 import org.springframework.samples.petclinic.vet.VetRepository;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.validation.Validation;
+
 /**
  * Integration test of the Service and the Repository layer.
  * <p>
@@ -82,6 +131,30 @@ class ClinicServiceTests {
 	@Autowired
 	protected VetRepository vets;
 
+	@Autowired
+	protected VisitRepository visits;
+
+	@Autowired
+	protected PetRepository pets;
+
+	@Autowired
+	protected PetAttributeRepository petAttributes;
+
+	@Autowired
+	protected ObjectProvider<PetAttributeIndex> attributeIndex;
+
+	@Autowired
+	protected EntityManager entityManager;
+
+	@Autowired
+	protected JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	protected PlatformTransactionManager transactionManager;
+
+	@Autowired
+	protected ApplicationEventPublisher events;
+
 	Pageable pageable;
 
 	@Test
@@ -93,6 +166,30 @@ class ClinicServiceTests {
 		assertThat(owners).isEmpty();
 	}
 
+	@Test
+	void shouldFindOwnerIdsByLastName() {
+		Page<Integer> ids = this.owners.findIdsByLastNameStartingWith("Davi", PageRequest.of(0, 1));
+		assertThat(ids.getContent()).hasSize(1).isSubsetOf(2, 4);
+		assertThat(ids.getTotalElements()).isEqualTo(2);
+
+		assertThat(this.owners.findIdsByLastNameStartingWith("Dav_s", PageRequest.of(0, 5))).isEmpty();
+	}
+
+	@Test
+	void shouldScrollOwnersByLastName() {
+		Sort sort = Sort.by("lastName", "id");
+		Window<OwnerLastName> first = this.owners.findLastNamesByLastNameStartingWith("Da", ScrollPosition.keyset(),
+				Limit.of(1), sort);
+		assertThat(first).hasSize(1);
+		assertThat(first.hasNext()).isTrue();
+
+		Window<OwnerLastName> second = this.owners.findLastNamesByLastNameStartingWith("Da", first.positionAt(0),
+				Limit.of(1), sort);
+		assertThat(second).containsExactly(new OwnerLastName(4, "Davis"));
+		assertThat(second.hasNext()).isFalse();
+		assertThat(first.getContent().get(0)).isEqualTo(new OwnerLastName(2, "Davis"));
+	}
+
 	@Test
 	void shouldFindSingleOwnerWithPet() {
 		Optional<Owner> optionalOwner = this.owners.findById(1);
@@ -104,6 +201,24 @@ class ClinicServiceTests {
 		assertThat(owner.getPets().get(0).getType().getName()).isEqualTo("cat");
 	}
 
+	@Test
+	void shouldFetchOnlyWhatEachViewRenders() {
+		PersistenceUnitUtil util = this.entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+		Owner owner = this.owners.findById(6).orElseThrow();
+		assertThat(util.isLoaded(owner, "pets")).isFalse();
+
+		this.entityManager.clear();
+		owner = this.owners.findWithPetsAndVisitsById(6).orElseThrow();
+		assertThat(util.isLoaded(owner, "pets")).isTrue();
+		assertThat(owner.getPets()).allMatch(pet -> util.isLoaded(pet, "visits"))
+			.noneMatch(pet -> util.isLoaded(pet, "attributes"));
+
+		this.entityManager.clear();
+		owner = this.owners.findWithPetsAndAttributesById(6).orElseThrow();
+		assertThat(owner.getPets()).allMatch(pet -> util.isLoaded(pet, "attributes"));
+	}
+
 	@Test
 	@Transactional
 	void shouldInsertOwner() {
@@ -123,6 +238,43 @@ class ClinicServiceTests {
 		assertThat(owners.getTotalElements()).isEqualTo(found + 1);
 	}
 
+	@Test
+	void shouldInsertOwnerWithPetsInBatches() {
+		PetType type = this.types.findPetTypes().iterator().next();
+		Owner owner = new Owner();
+		owner.setFirstName("Bea");
+		owner.setLastName("Batcher");
+		owner.setAddress("5, Batch Street");
+		owner.setCity("Madison");
+		owner.setTelephone("6085550005");
+		for (int i = 0; i < 5; i++) {
+			Pet pet = new Pet();
+			pet.setName("Batch " + i);
+			pet.setBirthDate(LocalDate.now());
+			pet.setType(type);
+			owner.addPet(pet);
+		}
+		SessionFactory sessionFactory = this.entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+		Statistics statistics = sessionFactory.getStatistics();
+		statistics.clear();
+		List<String> statements = new ArrayList<>();
+
+		try (Session session = sessionFactory.withOptions().statementInspector(sql -> {
+			statements.add(sql);
+			return sql;
+		}).openSession()) {
+			session.beginTransaction();
+			session.persist(owner);
+			session.flush();
+			session.getTransaction().rollback();
+		}
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(6);
+		// one batched insert per table; how many sequence calls come before them depends
+		// on the ids earlier tests left in the pooled blocks
+		assertThat(statements).filteredOn(sql -> sql.startsWith("insert")).hasSize(2);
+	}
+
 	@Test
 	@Transactional
 	void shouldUpdateOwner() {
@@ -232,6 +384,211 @@ class ClinicServiceTests {
 			.allMatch(value -> value.getId() != null);
 	}
 
+	@Test
+	void shouldCacheReferenceDataInSecondLevelCache() {
+		SessionFactory sessionFactory = this.entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+		// the caches outlive the transactions of earlier tests
+		sessionFactory.getCache().evictAllRegions();
+		Statistics statistics = sessionFactory.getStatistics();
+		statistics.clear();
+
+		this.types.findPetTypes();
+		this.entityManager.clear();
+		this.types.findPetTypes();
+		this.entityManager.find(Vet.class, 2);
+		this.entityManager.clear();
+		Vet vet = this.entityManager.find(Vet.class, 2);
+
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+		assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(1);
+		assertThat(vet.getSpecialties()).extracting(Specialty::getName).containsExactly("radiology");
+	}
+
+	@Test
+	@Transactional
+	void shouldIncrementOwnerVersionOnChanges() {
+		Owner owner = this.owners.findWithPetsById(1).orElseThrow();
+		int version = owner.getVersion();
+
+		owner.setCity("Middleton");
+		this.owners.saveAndFlush(owner);
+		assertThat(this.owners.findVersionById(1)).contains(version + 1);
+
+		Pet pet = new Pet();
+		pet.setName("Lucky");
+		pet.setType(EntityUtils.getById(this.types.findPetTypes(), PetType.class, 2));
+		owner.addPet(pet);
+		this.owners.saveAndFlush(owner);
+		assertThat(this.owners.findVersionById(1)).contains(version + 2);
+		assertThat(owner.getPet("Lucky").getVersion()).isZero();
+	}
+
+	@Test
+	@Transactional
+	void shouldAppendVisitWithoutLoadingOwner() {
+		VisitService visitService = new VisitService(this.visits, this.owners, new EntityIds(this.entityManager));
+		Visit visit = new Visit();
+		visit.setDescription("direct");
+		int version = this.owners.findVersionById(6).orElseThrow();
+
+		visitService.addVisit(6, 7, visit);
+		this.entityManager.clear();
+
+		assertThat(this.owners.findVersionById(6)).contains(version + 1);
+		assertThat(this.owners.findWithPetsAndVisitsById(6).orElseThrow().getPet(7).getVisits()).hasSize(3)
+			.extracting(Visit::getDescription)
+			.contains("direct");
+		assertThatIllegalArgumentException().isThrownBy(() -> visitService.addVisit(6, 1, new Visit()));
+	}
+
+	@Test
+	void shouldImportOwnersInBatches() throws IOException {
+		List<Object> published = new ArrayList<>();
+		OwnerImportService importService = new OwnerImportService(this.jdbcTemplate, this.transactionManager,
+				this.types, Validation.buildDefaultValidatorFactory().getValidator(), published::add,
+				new EntityIds(this.entityManager), 2, 3);
+		String csv = """
+				record,firstName,lastName,address,city,telephone,name,birthDate,type,date,description,value
+				owner,Ada,Importer,1 Batch St.,Madison,6085550001,,,,,,
+				pet,,,,,,Byte,2020-01-02,cat,,,
+				visit,,,,,,,,,2024-03-04,"checkup
+				all good",
+				attribute,,,,,,color,,,,,"black, white"
+				pet,,,,,,Nibble,2021-05-06,unicorn,,,
+				visit,,,,,,,,,2024-03-05,orphaned,
+				owner,Bad,Importer,2 Batch St.,Madison,123,,,,,,
+				pet,,,,,,Orphan,2020-01-02,dog,,,
+				owner,Bob,Importer,3 Batch St.,Madison,6085550003,,,,,,
+				pet,,,,,,Bit,2022-07-08,dog,,,
+				""";
+
+		OwnerImportReport report = importService
+			.importRecords(ImportRecordReader.csv(new BufferedReader(new StringReader(csv))));
+
+		assertThat(report.owners()).isEqualTo(2);
+		assertThat(report.pets()).isEqualTo(2);
+		assertThat(report.visits()).isEqualTo(1);
+		assertThat(report.attributes()).isEqualTo(1);
+		assertThat(report.rejected()).isEqualTo(4);
+		assertThat(report.rejections()).extracting(OwnerImportReport.Rejection::line).containsExactly(7L, 8L, 9L, 10L);
+		assertThat(published).hasSize(2)
+			.allSatisfy(event -> assertThat(event).isInstanceOf(OwnersImportedEvent.class))
+			.flatExtracting(event -> ((OwnersImportedEvent) event).owners())
+			.extracting(OwnerSummary::firstName)
+			.containsExactly("Ada", "Bob");
+
+		Page<Owner> owners = this.owners.findByLastNameStartingWith("Importer", Pageable.unpaged());
+		assertThat(owners.getContent()).extracting(Owner::getFirstName).containsExactlyInAnyOrder("Ada", "Bob");
+		Integer adaId = owners.getContent()
+			.stream()
+			.filter(owner -> owner.getFirstName().equals("Ada"))
+			.findFirst()
+			.orElseThrow()
+			.getId();
+		Pet pet = this.owners.findWithPetsAndVisitsById(adaId).orElseThrow().getPet("Byte");
+		assertThat(pet.getVisits()).extracting(Visit::getDescription).containsExactly("checkup\nall good");
+		this.entityManager.clear();
+		pet = this.owners.findWithPetsAndAttributesById(adaId).orElseThrow().getPet("Byte");
+		assertThat(pet.getAttributes()).extracting(PetAttribute::getValue).containsExactly("black, white");
+	}
+
+	@Test
+	void shouldExportOwnersInImportFormat() throws IOException {
+		OwnerExportService exportService = new OwnerExportService(this.jdbcTemplate, this.transactionManager,
+				new ObjectMapper(), 2);
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		this.jdbcTemplate.update("UPDATE visits SET description = ? WHERE id = 1", " rabies shot,\r\n\"no\" reaction");
+
+		assertThat(exportService.export(OwnerExportService.Format.NDJSON, false, ndjson)).isEqualTo(27);
+		assertThat(exportService.export(OwnerExportService.Format.CSV, true, csv)).isEqualTo(27);
+
+		List<String> lines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+		assertThat(lines).hasSize(27);
+		assertThat(lines.get(0)).isEqualTo(
+				"{\"record\":\"owner\",\"firstName\":\"George\",\"lastName\":\"Franklin\",\"address\":\"110 W. Liberty St.\",\"city\":\"Madison\",\"telephone\":\"6085551023\"}");
+		assertThat(lines.get(1))
+			.isEqualTo("{\"record\":\"pet\",\"name\":\"Leo\",\"birthDate\":\"2010-09-07\",\"type\":\"cat\"}");
+
+		OwnerImportService importService = new OwnerImportService(this.jdbcTemplate, this.transactionManager,
+				this.types, Validation.buildDefaultValidatorFactory().getValidator(), this.events,
+				new EntityIds(this.entityManager), 500, 5000);
+		OwnerImportReport report = importService
+			.importRecords(ImportRecordReader.csv(new BufferedReader(new InputStreamReader(
+					new GZIPInputStream(new ByteArrayInputStream(csv.toByteArray())), StandardCharsets.UTF_8))));
+		assertThat(report.owners()).isEqualTo(10);
+		assertThat(report.pets()).isEqualTo(13);
+		assertThat(report.visits()).isEqualTo(4);
+		assertThat(report.rejected()).isZero();
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits WHERE description = ?", Integer.class,
+				" rabies shot,\r\n\"no\" reaction"))
+			.isEqualTo(2);
+	}
+
+	@Test
+	@Transactional
+	void shouldFindPetsByAttribute() {
+		addAttribute(1, "microchip", "985112003456789");
+		addAttribute(1, "allergy", "Penicillin, dust");
+		addAttribute(2, "allergy", "pollen");
+		addAttribute(2, "microchip", "985112000000001");
+
+		assertThat(this.pets.findDistinctByAttributesNameAndAttributesValue("microchip", "985112003456789"))
+			.extracting(Pet::getId)
+			.containsExactly(1);
+		assertThat(
+				this.pets.findDistinctByAttributesNameAndAttributesValueContainingIgnoreCase("allergy", "PENICILLIN"))
+			.extracting(Pet::getId)
+			.containsExactly(1);
+		assertThat(this.pets.findDistinctByAttributesNameAndAttributesValueContainingIgnoreCase("allergy", "l"))
+			.extracting(Pet::getId)
+			.containsExactlyInAnyOrder(1, 2);
+		assertThat(this.pets.findDistinctByAttributesNameAndAttributesValueContainingIgnoreCase("microchip", "%"))
+			.isEmpty();
+	}
+
+	@Test
+	@Transactional
+	void shouldApplyAttributeChangesInBatches() {
+		PetService petService = new PetService(this.petAttributes, this.pets, this.attributeIndex, this.events,
+				this.owners, this.jdbcTemplate, this.entityManager, new EntityIds(this.entityManager));
+		PetAttribute color = addAttribute(1, "color", "orange");
+		PetAttribute weight = addAttribute(1, "weight", "4kg");
+		PetAttribute allergy = addAttribute(2, "allergy", "pollen");
+		PetAttribute darker = new PetAttribute();
+		darker.setId(color.getId());
+		darker.setName("color");
+		darker.setValue("brown");
+		PetAttribute microchip = new PetAttribute();
+		microchip.setName("microchip");
+		microchip.setValue("985112003456789");
+		PetAttribute foreign = new PetAttribute();
+		foreign.setId(allergy.getId());
+		foreign.setName("allergy");
+		foreign.setValue("none");
+
+		Map<Integer, List<PetAttribute>> result = petService.applyAttributeChanges(
+				List.of(new PetAttributeChanges(1, List.of(darker, microchip, foreign), Set.of(weight.getId())),
+						new PetAttributeChanges(3, List.of(), Set.of(allergy.getId()))));
+
+		assertThat(result.get(1)).extracting(PetAttribute::getName, PetAttribute::getValue)
+			.containsExactlyInAnyOrder(tuple("color", "brown"), tuple("microchip", "985112003456789"));
+		assertThat(result.get(3)).isEmpty();
+		assertThat(this.petAttributes.findByPetId(2)).extracting(PetAttribute::getValue).containsExactly("pollen");
+
+		PetAttribute unnamed = new PetAttribute();
+		assertThatIllegalArgumentException().isThrownBy(() -> petService
+			.applyAttributeChanges(List.of(new PetAttributeChanges(1, List.of(unnamed), Set.of()))));
+	}
+
+	private PetAttribute addAttribute(int petId, String name, String value) {
+		PetAttribute attribute = new PetAttribute();
+		attribute.setPet(this.pets.getReferenceById(petId));
+		attribute.setName(name);
+		attribute.setValue(value);
+		return this.petAttributes.saveAndFlush(attribute);
+	}
+
 	@Test
 	void shouldFindVisitsByPetId() {
 		Optional<Owner> optionalOwner = this.owners.findById(6);
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.PetClinicApplication;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSearchCache;
+import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.owner.PetTypeRegistry;
+import org.springframework.samples.petclinic.owner.PetTypeRepository;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetsResponseCache;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Runs two nodes of the application against a single embedded database and checks that a
+ * change made on one drops the stale cached data of the other.
+ */
+class CacheInvalidationTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = { "local", "jdbc" })
+	void shouldDropStaleCachesOnOtherNodes(String bus) {
+		String database = UUID.randomUUID().toString();
+		try (ConfigurableApplicationContext first = start(database, bus, true);
+				ConfigurableApplicationContext second = start(database, bus, false)) {
+			PetTypeRegistry petTypes = second.getBean(PetTypeRegistry.class);
+			OwnerSearchCache ownerSearches = second.getBean(OwnerSearchCache.class);
+			VetsResponseCache vets = second.getBean(VetsResponseCache.class);
+			assertThat(petTypes.findByName("dragon")).isEmpty();
+			ownerSearches.findIds("Dav", PageRequest.of(0, 5), page -> new PageImpl<>(List.of(2, 4), page, 2));
+			String etag = vets.get(MediaType.APPLICATION_JSON).etag();
+
+			PetType dragon = new PetType();
+			dragon.setName("dragon");
+			first.getBean(PetTypeRepository.class).save(dragon);
+			OwnerRepository owners = first.getBean(OwnerRepository.class);
+			Owner owner = owners.findById(2).orElseThrow();
+			owner.setLastName("Zed");
+			owners.save(owner);
+			EntityManager entityManager = first.getBean(EntityManager.class);
+			new TransactionTemplate(first.getBean(PlatformTransactionManager.class))
+				.executeWithoutResult(status -> entityManager.find(Vet.class, 1).setLastName("Carter-Jones"));
+
+			await(() -> petTypes.findByName("dragon").isPresent());
+			await(() -> ownerSearches.size() == 0);
+			await(() -> !vets.get(MediaType.APPLICATION_JSON).etag().equals(etag));
+			assertThat(new String(vets.get(MediaType.APPLICATION_JSON).body())).contains("Carter-Jones");
+		}
+	}
+
+	@Test
+	void shouldNotRelayRolledBackChanges() {
+		try (ConfigurableApplicationContext node = start(UUID.randomUUID().toString(), "jdbc", true)) {
+			JdbcTemplate jdbc = node.getBean(JdbcTemplate.class);
+			PetTypeRepository types = node.getBean(PetTypeRepository.class);
+
+			new TransactionTemplate(node.getBean(PlatformTransactionManager.class)).executeWithoutResult(status -> {
+				PetType dragon = new PetType();
+				dragon.setName("dragon");
+				types.saveAndFlush(dragon);
+				assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM cache_invalidations", Integer.class)).isEqualTo(1);
+				status.setRollbackOnly();
+			});
+
+			assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM cache_invalidations", Integer.class)).isZero();
+		}
+	}
+
+	private ConfigurableApplicationContext start(String database, String bus, boolean initialize) {
+		return new SpringApplicationBuilder(PetClinicApplication.class)
+			.properties("spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+					"spring.sql.init.mode=" + (initialize ? "always" : "never"), "server.port=0",
+					"spring.docker.compose.enabled=false", "petclinic.cache.invalidation.bus=" + bus,
+					"petclinic.cache.invalidation.poll-interval=100ms")
+			// overrides application.properties, unlike the default properties above
+			.run("--petclinic.owners.search-cache.enabled=true");
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) {
+				fail("Condition not met within 10 seconds");
+			}
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				fail("Interrupted");
+			}
+		}
+	}
+
+}
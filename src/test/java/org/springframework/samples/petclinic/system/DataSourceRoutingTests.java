@@ -0,0 +1,220 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.samples.petclinic.PetClinicApplication;
+import org.springframework.samples.petclinic.vet.VetRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Runs the application against two embedded databases, a primary and a replica, and
+ * checks which one each transaction uses.
+ */
+@SpringBootTest(classes = PetClinicApplication.class,
+		properties = { "petclinic.datasource.replica.url=jdbc:h2:mem:replica-routing-tests",
+				"petclinic.datasource.replica.max-lag=1h", "petclinic.cache.invalidation.bus=jdbc",
+				"petclinic.cache.invalidation.poll-interval=10ms" })
+class DataSourceRoutingTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replica;
+
+	@Autowired
+	private ReplicaDataSource readOnlyDataSource;
+
+	@Autowired
+	private CacheInvalidationBus bus;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private VetRepository vets;
+
+	@Test
+	void shouldReadFromReplicaInReadOnlyTransactions() {
+		new JdbcTemplate(this.replica).update("INSERT INTO types (name) VALUES ('replica-only')");
+		JdbcTemplate jdbc = new JdbcTemplate(this.dataSource);
+		String count = "SELECT COUNT(*) FROM types WHERE name = 'replica-only'";
+		TransactionTemplate readOnly = new TransactionTemplate(this.transactionManager);
+		readOnly.setReadOnly(true);
+		Integer inReadOnly = readOnly.execute(status -> jdbc.queryForObject(count, Integer.class));
+		Integer inReadWrite = new TransactionTemplate(this.transactionManager)
+			.execute(status -> jdbc.queryForObject(count, Integer.class));
+
+		assertThat(inReadOnly).isEqualTo(1);
+		assertThat(inReadWrite).isZero();
+		assertThat(jdbc.queryForObject(count, Integer.class)).isZero();
+	}
+
+	@Test
+	void shouldReadRepositoriesFromReplica() {
+		JdbcTemplate replicaJdbc = new JdbcTemplate(this.replica);
+		replicaJdbc.update("INSERT INTO vets (first_name, last_name) VALUES ('Rita', 'Replica')");
+		try {
+			assertThat(this.vets.findAllBy()).anyMatch(vet -> vet.getLastName().equals("Replica"));
+		}
+		finally {
+			replicaJdbc.update("DELETE FROM vets WHERE last_name = 'Replica'");
+		}
+	}
+
+	@Test
+	void shouldWriteToPrimary() {
+		JdbcTemplate jdbc = new JdbcTemplate(this.dataSource);
+		new TransactionTemplate(this.transactionManager)
+			.executeWithoutResult(status -> jdbc.update("INSERT INTO types (name) VALUES ('primary-only')"));
+		String count = "SELECT COUNT(*) FROM types WHERE name = 'primary-only'";
+
+		assertThat(jdbc.queryForObject(count, Integer.class)).isEqualTo(1);
+		assertThat(new JdbcTemplate(this.replica).queryForObject(count, Integer.class)).isZero();
+		assertThat(this.readOnlyDataSource.isReadingReplica()).isFalse();
+	}
+
+	@Test
+	void shouldReadFromReplicaWhilePollingCacheInvalidations() {
+		new JdbcTemplate(this.replica).update("INSERT INTO types (name) VALUES ('polled')");
+		assertThat(this.bus).isInstanceOf(JdbcCacheInvalidationBus.class);
+		((JdbcCacheInvalidationBus) this.bus).poll();
+		TransactionTemplate readOnly = new TransactionTemplate(this.transactionManager);
+		readOnly.setReadOnly(true);
+		JdbcTemplate jdbc = new JdbcTemplate(this.dataSource);
+		Integer count = readOnly
+			.execute(status -> jdbc.queryForObject("SELECT COUNT(*) FROM types WHERE name = 'polled'", Integer.class));
+
+		assertThat(this.readOnlyDataSource.isReadingReplica()).isTrue();
+		assertThat(count).isEqualTo(1);
+	}
+
+	@Test
+	void shouldReadFromPrimaryAfterWriteInSameSession() throws SQLException {
+		DataSource primary = database();
+		ReplicaDataSource reads = new ReplicaDataSource(primary, database(), Duration.ofHours(1), Duration.ofHours(1),
+				null, Duration.ZERO);
+		LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(reads.writes());
+		routing.setReadOnlyDataSource(reads);
+		JdbcTemplate jdbc = new JdbcTemplate(routing);
+		TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(routing));
+		TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+		readOnly.setReadOnly(true);
+		MockHttpServletRequest writer = new MockHttpServletRequest();
+		MockHttpServletRequest sameSession = new MockHttpServletRequest();
+		sameSession.setSession(writer.getSession());
+		try {
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(writer));
+			jdbc.update("CREATE TABLE outside_transaction (id INT)");
+			readOnly.executeWithoutResult(status -> jdbc.queryForObject("SELECT 1", Integer.class));
+			assertThat(reads.isReadingReplica()).isTrue();
+
+			readWrite.executeWithoutResult(status -> jdbc.update("CREATE TABLE in_transaction (id INT)"));
+			assertThat(reads.isReadingReplica()).isFalse();
+			assertThat(urlOf(reads)).isEqualTo(urlOf(primary));
+
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(sameSession));
+			assertThat(urlOf(reads)).isEqualTo(urlOf(primary));
+
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+			assertThat(reads.isReadingReplica()).isTrue();
+			assertThat(urlOf(reads)).isNotEqualTo(urlOf(primary));
+		}
+		finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	void shouldReadFromPrimaryWhileHandlingChanges() throws SQLException {
+		DataSource primary = database();
+		DataSource replica = database();
+		ReplicaDataSource reads = new ReplicaDataSource(primary, replica, Duration.ofHours(1), Duration.ofHours(1),
+				null, Duration.ZERO);
+		try {
+			RequestContextHolder.setRequestAttributes(
+					new ServletRequestAttributes(new MockHttpServletRequest("POST", "/owners/1/edit")));
+			assertThat(reads.isReadingReplica()).isFalse();
+			assertThat(urlOf(reads)).isEqualTo(urlOf(primary));
+
+			RequestContextHolder.setRequestAttributes(
+					new ServletRequestAttributes(new MockHttpServletRequest("GET", "/owners/1/edit")));
+			assertThat(reads.isReadingReplica()).isTrue();
+			assertThat(urlOf(reads)).isEqualTo(urlOf(replica));
+		}
+		finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	void shouldReadFromPrimaryWhileReplicaLags() throws SQLException {
+		DataSource primary = database();
+		DataSource replica = database();
+		ReplicaDataSource lagging = new ReplicaDataSource(primary, replica, Duration.ofSeconds(1), Duration.ofHours(1),
+				"SELECT 5", Duration.ZERO);
+		ReplicaDataSource upToDate = new ReplicaDataSource(primary, replica, Duration.ofSeconds(1), Duration.ofHours(1),
+				"SELECT 0.5", Duration.ZERO);
+
+		assertThat(urlOf(lagging)).isEqualTo(urlOf(primary));
+		assertThat(lagging.isReadingReplica()).isFalse();
+		assertThat(urlOf(upToDate)).isEqualTo(urlOf(replica));
+	}
+
+	@Test
+	void shouldReadFromPrimaryWhenReplicaFails() throws SQLException {
+		DataSource primary = database();
+		DataSource unavailable = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+		ReplicaDataSource reads = new ReplicaDataSource(primary, unavailable, Duration.ZERO, Duration.ofHours(1), null,
+				Duration.ZERO);
+
+		assertThat(urlOf(reads)).isEqualTo(urlOf(primary));
+		assertThat(reads.isReadingReplica()).isFalse();
+	}
+
+	private static DataSource database() {
+		return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+	}
+
+	private static String urlOf(DataSource dataSource) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			return connection.getMetaData().getURL();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+#
+# Compares the application on platform threads (Tomcat worker pool) and on virtual threads
+# (the "virtual-threads" profile) by running the JMeter test plan against each in turn.
+#
+# Usage: src/test/jmeter/compare-threads.sh [users] [loops]
+#
+# Needs Java 21 or newer and jmeter on the PATH (or JMETER_HOME). Set PROFILES to add
+# profiles to both runs, e.g. PROFILES=postgres to measure against a real database, and
+# PORT to use another port than 8080. Logs, raw results and an HTML report per mode are
+# written to target/jmeter.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/../../.."
+
+USERS=${1:-500}
+LOOPS=${2:-10}
+PORT=${PORT:-8080}
+PROFILES=${PROFILES:-}
+JMETER=${JMETER_HOME:+$JMETER_HOME/bin/}jmeter
+PLAN=src/test/jmeter/petclinic_test_plan.jmx
+OUT=target/jmeter
+
+java_version=$(java -XshowSettings:properties -version 2>&1 | awk -F' = ' '/java.specification.version/ { print $2 }')
+if [ "${java_version%%.*}" -lt 21 ]; then
+	echo "Virtual threads need Java 21 or newer, found Java $java_version" >&2
+	exit 1
+fi
+
+jar=$(ls target/*.jar 2>/dev/null | head -1 || true)
+if [ -z "$jar" ]; then
+	./mvnw -q -DskipTests package
+	jar=$(ls target/*.jar | head -1)
+fi
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+jmeter() {
+	"$JMETER" -n -t "$PLAN" -Jpetclinic.port="$PORT" -Jjmeter.save.saveservice.output_format=csv "$@" > /dev/null
+}
+
+run() {
+	local mode=$1 profiles=$2
+	java -jar "$jar" --server.port="$PORT" --spring.profiles.active="$profiles" > "$OUT/$mode.log" 2>&1 &
+	local pid=$!
+	trap "kill $pid 2>/dev/null" EXIT
+	until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "The application did not start, see $OUT/$mode.log" >&2
+			exit 1
+		fi
+		sleep 1
+	done
+	# warm up the JIT and the caches before measuring
+	jmeter -Jpetclinic.threads=50 -Jpetclinic.loops=2 -Jpetclinic.rampup=1 -l "$OUT/$mode-warmup.jtl"
+	jmeter -Jpetclinic.threads="$USERS" -Jpetclinic.loops="$LOOPS" -l "$OUT/$mode.jtl" -e -o "$OUT/$mode-report"
+	kill "$pid"
+	wait "$pid" || true
+	trap - EXIT
+}
+
+summarize() {
+	local mode=$1 jtl=$OUT/$1.jtl
+	local p95
+	p95=$(tail -n +2 "$jtl" | cut -d, -f2 | sort -n | awk '{ v[NR] = $1 } END { print v[int(NR * 0.95 + 0.5)] }')
+	tail -n +2 "$jtl" | awk -F, -v mode="$mode" -v p95="$p95" '
+		{ n++; sum += $2; if ($8 != "true") errors++; if (first == "" || $1 < first) first = $1; if ($1 + $2 > last) last = $1 + $2 }
+		END { printf "%-10s %10d %10.1f %10.1f %10d %9.2f%%\n", mode, n, n * 1000 / (last - first), sum / n, p95, errors * 100 / n }'
+}
+
+join() {
+	local IFS=,
+	echo "$*"
+}
+
+run platform "$(join $PROFILES)"
+run virtual "$(join $PROFILES virtual-threads)"
+
+printf "%-10s %10s %10s %10s %10s %10s\n" mode requests "req/s" "mean ms" "p95 ms" errors
+summarize platform
+summarize virtual
@@ -0,0 +1,93 @@
+#!/usr/bin/env bash
+#
+# Compares the startup of the application run plain, with the ahead-of-time processed bean
+# definitions, and with those plus the class data sharing archive of the "fast-start" Maven
+# profile. For each mode it measures the time from launching the JVM to the first
+# successful request of the welcome page, and the resident memory of the process once that
+# request was served.
+#
+# Usage: src/test/startup/compare-startup.sh [runs]
+#
+# All modes run the application extracted in target/fast-start, so they only differ by
+# their JVM options; it is built with the fast-start profile when missing. Set PROFILES to
+# run with other Spring profiles (e.g. PROFILES=postgres), which have to be the ones the
+# application was AOT processed with, and PORT to use another port than 8080. Logs are
+# written to target/startup.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/../../.."
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+PROFILES=${PROFILES:-}
+DIR=target/fast-start
+OUT=target/startup
+
+if [ ! -f "$DIR/application.jsa" ]; then
+	./mvnw -q -DskipTests -Pfast-start package
+fi
+jar=$(cd "$DIR" && ls *.jar | head -1)
+
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+now_ms() {
+	date +%s%3N
+}
+
+rss_kb() {
+	if [ -r "/proc/$1/status" ]; then
+		awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+	else
+		ps -o rss= -p "$1" | tr -d ' '
+	fi
+}
+
+# Start the application once with the given JVM options and print the milliseconds until
+# the first request succeeded and the resident memory in MB at that point.
+run() {
+	local log=$1
+	shift
+	local start pid
+	start=$(now_ms)
+	(cd "$DIR" && exec java "$@" -jar "$jar" --server.port="$PORT" --spring.profiles.active="$PROFILES") > "$log" 2>&1 &
+	pid=$!
+	trap "kill $pid 2>/dev/null" EXIT
+	until curl -sf -o /dev/null "http://localhost:$PORT/"; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "The application did not start, see $log" >&2
+			exit 1
+		fi
+		sleep 0.02
+	done
+	local elapsed=$(($(now_ms) - start))
+	local rss
+	rss=$(rss_kb "$pid")
+	kill "$pid"
+	wait "$pid" || true
+	trap - EXIT
+	echo "$elapsed $((rss / 1024))"
+}
+
+median() {
+	sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+measure() {
+	local mode=$1
+	shift
+	local results=$OUT/$mode.txt
+	for i in $(seq "$RUNS"); do
+		run "$OUT/$mode-$i.log" "$@" >> "$results"
+	done
+	if grep -q "\[cds\].*\(error\|warning\)" "$OUT/$mode-1.log"; then
+		echo "$mode: the CDS archive could not be used, see $OUT/$mode-1.log" >&2
+	fi
+	printf "%-10s %22d %12d\n" "$mode" "$(cut -d' ' -f1 "$results" | median)" "$(cut -d' ' -f2 "$results" | median)"
+}
+
+printf "%-10s %22s %12s\n" mode "first request ms" "RSS MB"
+measure plain
+measure aot -Dspring.aot.enabled=true
+measure aot-cds -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true